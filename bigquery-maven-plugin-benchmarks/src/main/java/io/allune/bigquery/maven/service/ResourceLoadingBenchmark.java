@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import io.allune.bigquery.maven.config.SchemaLocations;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how schema locations are normalized and resolved to resources, for a growing number of
+ * schema files, both on a first scan and from an index that has already seen the location.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceLoadingBenchmark {
+
+    private static final int GROUPS = 10;
+
+    @Param({"10", "100", "1000"})
+    public int files;
+
+    @Param({"10"})
+    public int width;
+
+    @Param({"2"})
+    public int depth;
+
+    private Path directory;
+    private List<String> directoryLocation;
+    private List<String> rawLocations;
+    private ClassLoader classLoader;
+    private ResourceIndex resourceIndex;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = SchemaTrees.writeSchemas(Files.createTempDirectory("bigquery-benchmark"), files, width, depth);
+        directoryLocation = Collections.singletonList("file:" + directory);
+        classLoader = Thread.currentThread().getContextClassLoader();
+        resourceIndex = new ResourceIndex(classLoader);
+        resourceIndex.resources(directoryLocation);
+
+        // one location per file, with a parent location per group and a duplicate of every tenth file
+        rawLocations = new ArrayList<>();
+        for (int i = 0; i < files; i++) {
+            rawLocations.add("classpath:/schemas/group_" + (i % GROUPS) + "/table_" + i + ".json");
+            if (i % 10 == 0) {
+                rawLocations.add("/schemas/group_" + (i % GROUPS) + "/table_" + i + ".json/");
+            }
+        }
+        for (int i = 0; i < GROUPS; i += 2) {
+            rawLocations.add("classpath:schemas/group_" + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public SchemaLocations normalizeLocations() {
+        return new SchemaLocations(rawLocations);
+    }
+
+    @Benchmark
+    public List<Resource> scanResources() {
+        return new ResourceIndex(classLoader).resources(directoryLocation);
+    }
+
+    @Benchmark
+    public List<Resource> indexedResources() {
+        return resourceIndex.resources(directoryLocation);
+    }
+}
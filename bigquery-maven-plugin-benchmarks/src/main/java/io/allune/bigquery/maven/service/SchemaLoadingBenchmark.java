@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.google.api.services.bigquery.model.TableFieldSchema;
+import com.google.cloud.bigquery.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.allune.bigquery.maven.service.ObjectMappers.mapper;
+
+/**
+ * Measures each step of turning a schema file into a {@link Schema}: deserialization, conversion
+ * to the client model, and both combined.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaLoadingBenchmark {
+
+    private static final CollectionType FIELD_LIST_TYPE =
+            mapper().getTypeFactory().constructCollectionType(List.class, TableFieldSchema.class);
+
+    @Param({"10", "100", "1000"})
+    public int width;
+
+    @Param({"1", "4", "12"})
+    public int depth;
+
+    private String json;
+    private Resource resource;
+    private List<TableFieldSchema> fields;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = SchemaTrees.schema(width, depth);
+        resource = new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8));
+        fields = mapper().readValue(json, FIELD_LIST_TYPE);
+    }
+
+    @Benchmark
+    public List<TableFieldSchema> deserialize() throws IOException {
+        return mapper().readValue(json, FIELD_LIST_TYPE);
+    }
+
+    @Benchmark
+    public Schema toSchema() {
+        return TableDefinitionLoader.toSchema(fields);
+    }
+
+    @Benchmark
+    public Schema loadTableSchema() {
+        return TableDefinitionLoader.toSchema(TableDefinitionLoader.loadSchemaFile(resource, true).getFields());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates table schema definitions in the format read by the plugin. Every level of a tree has
+ * {@code width} leaf fields of mixed types and, unless it is the last of {@code depth} levels, one
+ * nested record holding the next level.
+ */
+final class SchemaTrees {
+
+    private static final String[] LEAF_TYPES = {"STRING", "INTEGER", "FLOAT", "BOOLEAN", "TIMESTAMP"};
+    private static final String[] MODES = {"NULLABLE", "REQUIRED", "REPEATED"};
+
+    private SchemaTrees() {
+        // no op
+    }
+
+    static String schema(int width, int depth) {
+        StringBuilder json = new StringBuilder();
+        appendFields(json, width, depth, 1);
+        return json.toString();
+    }
+
+    /**
+     * Writes {@code files} schema definitions to {@code directory} and returns it.
+     */
+    static Path writeSchemas(Path directory, int files, int width, int depth) throws IOException {
+        Files.createDirectories(directory);
+        byte[] schema = schema(width, depth).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < files; i++) {
+            Files.write(directory.resolve("table_" + i + ".json"), schema);
+        }
+        return directory;
+    }
+
+    static int fieldCount(int width, int depth) {
+        return depth * (width + 1) - 1;
+    }
+
+    private static void appendFields(StringBuilder json, int width, int depth, int level) {
+        json.append('[');
+        for (int i = 0; i < width; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendField(json, "field_" + i, LEAF_TYPES[i % LEAF_TYPES.length], MODES[i % MODES.length]);
+        }
+        if (level < depth) {
+            if (width > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"record_").append(level).append("\",\"type\":\"RECORD\",\"mode\":\"NULLABLE\",\"fields\":");
+            appendFields(json, width, depth, level + 1);
+            json.append('}');
+        }
+        json.append(']');
+    }
+
+    private static void appendField(StringBuilder json, String name, String type, String mode) {
+        json.append("{\"name\":\"").append(name)
+                .append("\",\"type\":\"").append(type)
+                .append("\",\"mode\":\"").append(mode)
+                .append("\",\"description\":\"Generated ").append(type.toLowerCase()).append(" field\"}");
+    }
+}
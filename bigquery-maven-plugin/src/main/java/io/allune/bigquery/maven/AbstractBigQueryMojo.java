@@ -17,10 +17,20 @@
 package io.allune.bigquery.maven;
 
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.ServiceOptions;
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.BigQueryOptions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.allune.bigquery.maven.cache.Fingerprint;
+import io.allune.bigquery.maven.cache.FingerprintCache;
+import io.allune.bigquery.maven.config.SchemaLocation;
+import io.allune.bigquery.maven.config.SchemaLocations;
+import io.allune.bigquery.maven.metrics.ExecutionMetrics;
 import io.allune.bigquery.maven.service.BigQueryServiceImpl;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -35,10 +45,21 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,6 +73,8 @@ import static java.lang.Thread.currentThread;
 @SuppressWarnings("unused")
 public abstract class AbstractBigQueryMojo extends AbstractMojo {
 
+    private static final String CLASS_LOADERS_KEY = AbstractBigQueryMojo.class.getName() + ".classLoaders";
+
     /**
      * Whether the execution of this mojo should be skipped
      */
@@ -67,9 +90,22 @@ public abstract class AbstractBigQueryMojo extends AbstractMojo {
     /**
      * The dataset to use for creating the BigQuery tables
      */
-    @Parameter(alias = "datasetName", property = "bigquery.datasetName", required = true)
+    @Parameter(alias = "datasetName", property = "bigquery.datasetName")
     private String datasetName;
 
+    /**
+     * More datasets to provision in the same execution, concurrently. Names containing * or ? are
+     * matched against the existing datasets of the project
+     */
+    @Parameter(alias = "datasetNames", property = "bigquery.datasetNames")
+    private String[] datasetNames;
+
+    /**
+     * The maximum number of datasets provisioned concurrently
+     */
+    @Parameter(alias = "datasetParallelism", property = "bigquery.datasetParallelism", defaultValue = "4")
+    private int datasetParallelism;
+
     /**
      * The location of the data. EU by default
      */
@@ -82,11 +118,97 @@ public abstract class AbstractBigQueryMojo extends AbstractMojo {
     @Parameter(alias = "credentialsFile", property = "bigquery.credentialsFile", required = true)
     private String credentialsFile;
 
+    /**
+     * The maximum number of concurrent BigQuery requests used to create or delete tables and views
+     */
+    @Parameter(alias = "parallelism", property = "bigquery.parallelism", defaultValue = "4")
+    private int parallelism;
+
+    /**
+     * Whether to make the requests from virtual threads, which lets a large parallelism keep many
+     * requests in flight over high-latency links without as many platform threads. Requires Java 21
+     */
+    @Parameter(alias = "virtualThreads", property = "bigquery.virtualThreads", defaultValue = "false")
+    private boolean virtualThreads;
+
+    /**
+     * The maximum sustained rate of requests made against the dataset, per second. Zero means no limit
+     */
+    @Parameter(alias = "requestsPerSecond", property = "bigquery.requestsPerSecond", defaultValue = "0")
+    private double requestsPerSecond;
+
+    /**
+     * The number of requests that may be made at once when the rate is limited
+     */
+    @Parameter(alias = "requestBurst", property = "bigquery.requestBurst", defaultValue = "10")
+    private int requestBurst;
+
+    /**
+     * The number of times a request failed by a rate limit or a server error is retried
+     */
+    @Parameter(alias = "maxRetries", property = "bigquery.maxRetries", defaultValue = "5")
+    private int maxRetries;
+
+    /**
+     * The delay before the first retry of a request, in milliseconds. Doubled on every retry, with jitter
+     */
+    @Parameter(alias = "initialRetryDelay", property = "bigquery.initialRetryDelay", defaultValue = "1000")
+    private long initialRetryDelay;
+
+    /**
+     * The maximum delay between two retries of a request, in milliseconds
+     */
+    @Parameter(alias = "maxRetryDelay", property = "bigquery.maxRetryDelay", defaultValue = "32000")
+    private long maxRetryDelay;
+
+    /**
+     * Whether to skip the execution when neither its configuration nor the schema and view files
+     * have changed since its last successful execution against the same dataset
+     */
+    @Parameter(alias = "skipUnchanged", property = "bigquery.skipUnchanged", defaultValue = "false")
+    private boolean skipUnchanged;
+
+    /**
+     * The directory where the fingerprints of the successful executions are kept
+     */
+    @Parameter(alias = "cacheDirectory", property = "bigquery.cacheDirectory", defaultValue = "${project.build.directory}/bigquery")
+    private File cacheDirectory;
+
+    /**
+     * How the project classpath is made available to classpath: locations. MINIMAL adds only the project
+     * directories holding them, FULL adds the runtime, compile and test classpath
+     */
+    @Parameter(alias = "classLoaderMode", property = "bigquery.classLoaderMode", defaultValue = "MINIMAL")
+    private ClassLoaderMode classLoaderMode = ClassLoaderMode.MINIMAL;
+
+    /**
+     * The JSON file where the count and duration of each phase of the execution are written. The
+     * report is not written when empty
+     */
+    @Parameter(alias = "metricsFile", property = "bigquery.metricsFile",
+            defaultValue = "${project.build.directory}/bigquery/metrics-${mojoExecution.executionId}.json")
+    private File metricsFile;
+
+    /**
+     * Labels set on the tables and views the plugin creates or updates. The clean goal only deletes the
+     * tables carrying all of them
+     */
+    @Parameter(alias = "tableLabels")
+    private Map<String, String> tableLabels;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
     @Parameter(defaultValue = "${project}", required = true, readonly = true)
     private MavenProject mavenProject;
 
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
     private Log log;
 
+    private ExecutionMetrics metrics;
+
     public boolean isSkip() {
         return skip;
     }
@@ -111,6 +233,22 @@ public abstract class AbstractBigQueryMojo extends AbstractMojo {
         this.datasetName = datasetName;
     }
 
+    public String[] getDatasetNames() {
+        return datasetNames;
+    }
+
+    public void setDatasetNames(String[] datasetNames) {
+        this.datasetNames = datasetNames;
+    }
+
+    public int getDatasetParallelism() {
+        return datasetParallelism;
+    }
+
+    public void setDatasetParallelism(int datasetParallelism) {
+        this.datasetParallelism = datasetParallelism;
+    }
+
     public String getDataLocation() {
         return dataLocation;
     }
@@ -127,6 +265,118 @@ public abstract class AbstractBigQueryMojo extends AbstractMojo {
         this.credentialsFile = credentialsFile;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getRequestBurst() {
+        return requestBurst;
+    }
+
+    public void setRequestBurst(int requestBurst) {
+        this.requestBurst = requestBurst;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getInitialRetryDelay() {
+        return initialRetryDelay;
+    }
+
+    public void setInitialRetryDelay(long initialRetryDelay) {
+        this.initialRetryDelay = initialRetryDelay;
+    }
+
+    public long getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    public void setMaxRetryDelay(long maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    public boolean isSkipUnchanged() {
+        return skipUnchanged;
+    }
+
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public void setCacheDirectory(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public File getMetricsFile() {
+        return metricsFile;
+    }
+
+    public void setMetricsFile(File metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    public void setTableLabels(Map<String, String> tableLabels) {
+        this.tableLabels = tableLabels;
+    }
+
+    Map<String, String> getTableLabels() {
+        return tableLabels != null ? tableLabels : Collections.emptyMap();
+    }
+
+    public ClassLoaderMode getClassLoaderMode() {
+        return classLoaderMode;
+    }
+
+    public void setClassLoaderMode(ClassLoaderMode classLoaderMode) {
+        this.classLoaderMode = classLoaderMode;
+    }
+
+    String getPluginVersion() {
+        return pluginVersion;
+    }
+
+    void setPluginVersion(String pluginVersion) {
+        this.pluginVersion = pluginVersion;
+    }
+
+    MavenProject getMavenProject() {
+        return mavenProject;
+    }
+
+    void setMavenProject(MavenProject mavenProject) {
+        this.mavenProject = mavenProject;
+    }
+
     public void execute() throws MojoExecutionException {
         log = getLog();
 
@@ -135,57 +385,467 @@ public abstract class AbstractBigQueryMojo extends AbstractMojo {
             return;
         }
 
+        List<String> datasets = getConfiguredDatasets();
+        if (datasets.isEmpty()) {
+            throw new MojoExecutionException("Either datasetName or datasetNames must be configured");
+        }
+
+        metrics = new ExecutionMetrics();
+        long start = System.nanoTime();
+        String outcome = "failed";
+        try {
+            outcome = execute(datasets) ? "succeeded" : "skipped";
+        } finally {
+            reportMetrics(datasets, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Executes this mojo against the datasets, returning false if it was skipped.
+     */
+    private boolean execute(List<String> datasets) throws MojoExecutionException {
+        // Skip the execution if nothing changed since it last succeeded
+        FingerprintCache cache = cacheDirectory != null ? new FingerprintCache(cacheDirectory) : null;
+        String goal = getClass().getSimpleName();
+        String fingerprint = skipUnchanged && cache != null && !isOffline()
+                ? metrics.time("fingerprint", this::computeFingerprint) : null;
+        if (fingerprint != null && datasets.stream().noneMatch(AbstractBigQueryMojo::isPattern)
+                && datasets.stream().allMatch(dataset -> cache.isUpToDate(projectId, dataset, goal, fingerprint))) {
+            log.info("BigQuery resources of " + String.join(", ", datasets) + " are up to date, skipping");
+            return false;
+        }
+
         // Add project classpath elements into classloader
-        enhanceClassloader();
+        ClassLoader parent = currentThread().getContextClassLoader();
+        currentThread().setContextClassLoader(metrics.time("classLoader", () -> createClassLoader(parent)));
+
+        if (isOffline()) {
+            executeOffline(datasets.get(0));
+            return true;
+        }
+
+        BigQuery bigQuery = metrics.time("client", this::bigQuery);
+        if (virtualThreads && !BigQueryServiceImpl.supportsVirtualThreads()) {
+            log.warn("Virtual threads require Java 21 or later, making the requests from platform threads");
+        }
 
-        // Create BigQuery service with the provided credentials
+        // The service of the first configured dataset lists the datasets and reads the local definitions once
+        List<String> configuredDatasets = datasets;
+        BigQueryServiceImpl definitionsOwner = serviceBuilder(bigQuery).dataset(configuredDatasets.get(0)).build();
+        datasets = metrics.time("datasets.expand", () -> expandPatterns(definitionsOwner, configuredDatasets));
+        if (datasets.isEmpty()) {
+            log.warn("No dataset matches " + String.join(", ", getConfiguredDatasets()));
+            return false;
+        }
+
+        // Create one BigQuery service per dataset, all sharing the local definitions
+        Map<String, BigQueryServiceImpl> services = new LinkedHashMap<>();
+        for (String dataset : datasets) {
+            services.put(dataset,
+                    serviceBuilder(bigQuery).dataset(dataset).shareDefinitionsWith(definitionsOwner).build());
+        }
+
+        // Execute this mojo
+        if (services.size() == 1) {
+            String dataset = datasets.get(0);
+            if (isUpToDate(cache, goal, dataset, fingerprint)) {
+                return false;
+            }
+            execute(services.get(dataset), cache, goal, dataset, fingerprint);
+        } else {
+            executeConcurrently(services, cache, goal, fingerprint);
+        }
+        return true;
+    }
+
+    private void executeOffline(String dataset) throws MojoExecutionException {
         BigQueryServiceImpl bigQueryService = BigQueryServiceImpl.builder()
-                .bigQuery(bigQuery())
                 .projectId(projectId)
                 .credentialsFile(credentialsFile)
-                .dataset(datasetName)
+                .dataset(dataset)
                 .logger(log)
+                .parallelism(parallelism)
+                .viewVariables(getViewVariables())
+                .tableLabels(getTableLabels())
+                .metrics(metrics)
                 .build();
+        long start = System.nanoTime();
+        try {
+            doExecute(bigQueryService);
+        } finally {
+            metrics.record("goal", System.nanoTime() - start);
+        }
+    }
 
-        // Execute this mojo
-        doExecute(bigQueryService);
+    private void reportMetrics(List<String> datasets, String outcome, long nanos) {
+        log.info(String.format("BigQuery %s %s in %.1f s:", getClass().getSimpleName(), outcome, nanos / 1e9));
+        metrics.summary().forEach(line -> log.info("  " + line));
+        if (metricsFile == null || metricsFile.getPath().isEmpty()) {
+            return;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("goal", getClass().getSimpleName());
+        attributes.put("pluginVersion", pluginVersion);
+        attributes.put("projectId", projectId);
+        attributes.put("datasets", datasets);
+        attributes.put("outcome", outcome);
+        attributes.put("startedAt", Instant.ofEpochMilli(System.currentTimeMillis() - nanos / 1_000_000).toString());
+        attributes.put("totalMillis", nanos / 1e6);
+        try {
+            metrics.writeReport(metricsFile, attributes);
+        } catch (IOException e) {
+            log.warn("Unable to write the metrics of this execution: " + e.getMessage());
+        }
+    }
+
+    private void executeConcurrently(Map<String, BigQueryServiceImpl> services, FingerprintCache cache, String goal,
+                                     String fingerprint) throws MojoExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(datasetParallelism, services.size())),
+                new ThreadFactoryBuilder().setNameFormat("bigquery-dataset-%d").setDaemon(true).build());
+        Map<String, Future<String>> outcomes = new LinkedHashMap<>();
+        try {
+            services.forEach((dataset, bigQueryService) -> outcomes.put(dataset, pool.submit(() -> {
+                if (isUpToDate(cache, goal, dataset, fingerprint)) {
+                    return "up to date";
+                }
+                long start = System.nanoTime();
+                execute(bigQueryService, cache, goal, dataset, fingerprint);
+                return String.format("succeeded in %.1f s", (System.nanoTime() - start) / 1e9);
+            })));
+
+            List<String> failed = new ArrayList<>();
+            log.info("Datasets:");
+            for (Map.Entry<String, Future<String>> outcome : outcomes.entrySet()) {
+                try {
+                    log.info("  " + outcome.getKey() + ": " + outcome.getValue().get());
+                } catch (ExecutionException e) {
+                    failed.add(outcome.getKey());
+                    log.error("  " + outcome.getKey() + ": failed - " + e.getCause().getMessage());
+                }
+            }
+            if (!failed.isEmpty()) {
+                throw new MojoExecutionException(String.format("Failed to execute on %d of %d datasets (%s)",
+                        failed.size(), services.size(), String.join(", ", failed)));
+            }
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for the datasets", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void execute(BigQueryServiceImpl bigQueryService, FingerprintCache cache, String goal, String dataset,
+                         String fingerprint) throws MojoExecutionException {
+        invalidateCache(cache, goal, dataset);
+
+        long start = System.nanoTime();
+        try {
+            doExecute(bigQueryService);
+        } finally {
+            metrics.record("goal", System.nanoTime() - start);
+        }
+
+        if (fingerprint != null) {
+            try {
+                cache.store(projectId, dataset, goal, fingerprint);
+            } catch (IOException e) {
+                log.warn("Unable to store the fingerprint of this execution: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean isUpToDate(FingerprintCache cache, String goal, String dataset, String fingerprint) {
+        if (fingerprint != null && cache.isUpToDate(projectId, dataset, goal, fingerprint)) {
+            log.info("BigQuery resources of " + dataset + " are up to date, skipping");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the configured dataset names and patterns.
+     */
+    List<String> getConfiguredDatasets() {
+        Set<String> datasets = new LinkedHashSet<>();
+        if (StringUtils.isNotBlank(datasetName)) {
+            datasets.add(datasetName.trim());
+        }
+        if (datasetNames != null) {
+            Stream.of(datasetNames).filter(StringUtils::isNotBlank).map(String::trim).forEach(datasets::add);
+        }
+        return new ArrayList<>(datasets);
     }
 
-    private void enhanceClassloader() {
+    /**
+     * Returns a builder of the service of a dataset, configured as this mojo.
+     */
+    private BigQueryServiceImpl.Builder serviceBuilder(BigQuery bigQuery) {
+        return BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId(projectId)
+                .credentialsFile(credentialsFile)
+                .logger(log)
+                .parallelism(parallelism)
+                .virtualThreads(virtualThreads)
+                .requestRate(requestsPerSecond, requestBurst)
+                .retries(maxRetries, initialRetryDelay, maxRetryDelay)
+                .viewVariables(getViewVariables())
+                .tableLabels(getTableLabels())
+                .metrics(metrics);
+    }
+
+    private List<String> expandPatterns(BigQueryServiceImpl bigQueryService, List<String> datasets) {
+        if (datasets.stream().noneMatch(AbstractBigQueryMojo::isPattern)) {
+            return datasets;
+        }
+        List<String> existingDatasets = bigQueryService.listDatasets();
+        Set<String> expanded = new LinkedHashSet<>();
+        for (String dataset : datasets) {
+            if (isPattern(dataset)) {
+                existingDatasets.stream().filter(name -> FilenameUtils.wildcardMatch(name, dataset)).sorted()
+                        .forEach(expanded::add);
+            } else {
+                expanded.add(dataset);
+            }
+        }
+        return new ArrayList<>(expanded);
+    }
+
+    private static boolean isPattern(String dataset) {
+        return StringUtils.containsAny(dataset, '*', '?');
+    }
+
+    /**
+     * Computes the fingerprint of this execution, or returns null if its inputs cannot be fingerprinted.
+     */
+    String computeFingerprint() {
+        Fingerprint fingerprint = new Fingerprint()
+                .add("pluginVersion", pluginVersion)
+                .add("goal", getClass().getName())
+                .add("projectId", projectId)
+                .add("dataLocation", dataLocation)
+                .add("credentialsFile", credentialsFile);
         try {
-            Set<URL> urls = new HashSet<>();
+            return addFingerprintInputs(fingerprint) ? fingerprint.value() : null;
+        } catch (IOException e) {
+            getLog().debug("Unable to fingerprint this execution: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Adds the inputs specific to this mojo to the fingerprint of the execution. Returns false,
+     * the default, if the execution must not be skipped even when its inputs have not changed.
+     */
+    boolean addFingerprintInputs(Fingerprint fingerprint) throws IOException {
+        return false;
+    }
+
+    /**
+     * Whether this mojo only works on local files, in which case it is executed once, without BigQuery
+     * client, whatever the number of datasets.
+     */
+    boolean isOffline() {
+        return false;
+    }
+
+    /**
+     * Whether this mojo changes the dataset in a way that outdates the fingerprints of all goals.
+     */
+    boolean invalidatesAllFingerprints() {
+        return false;
+    }
+
+    private void invalidateCache(FingerprintCache cache, String goal, String dataset) {
+        if (cache == null) {
+            return;
+        }
+        try {
+            if (invalidatesAllFingerprints()) {
+                cache.invalidateAll(projectId, dataset);
+            } else {
+                cache.invalidate(projectId, dataset, goal);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to invalidate the fingerprints of " + dataset + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the schema and view locations read by this mojo.
+     */
+    List<String> getResourceLocations() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the variables substituted in view queries.
+     */
+    Map<String, String> getViewVariables() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Returns the properties of the project, overridden by the user properties of the session.
+     */
+    Map<String, String> getBuildProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        if (mavenProject != null) {
+            mavenProject.getProperties().stringPropertyNames()
+                    .forEach(name -> properties.put(name, mavenProject.getProperties().getProperty(name)));
+        }
+        if (session != null) {
+            session.getUserProperties().stringPropertyNames()
+                    .forEach(name -> properties.put(name, session.getUserProperties().getProperty(name)));
+        }
+        return properties;
+    }
+
+    /**
+     * Returns the output and resource directories of the project, where its classpath: locations live.
+     */
+    List<File> getProjectClassPathRoots() {
+        List<File> roots = new ArrayList<>();
+        if (mavenProject == null) {
+            return roots;
+        }
+        List<String> directories = new ArrayList<>();
+        if (mavenProject.getBuild() != null) {
+            directories.add(mavenProject.getBuild().getOutputDirectory());
+            directories.add(mavenProject.getBuild().getTestOutputDirectory());
+        }
+        mavenProject.getResources().forEach(resource -> directories.add(resource.getDirectory()));
+        mavenProject.getTestResources().forEach(resource -> directories.add(resource.getDirectory()));
+        directories.stream().filter(Objects::nonNull).map(File::new).forEach(roots::add);
+        return roots;
+    }
+
+    /**
+     * Returns the class loader resolving the classpath: locations of this mojo, reusing the one created
+     * by an earlier goal of the same project with the same parent and classpath.
+     */
+    ClassLoader createClassLoader(ClassLoader parent) {
+        Set<URL> urls = classLoaderMode == ClassLoaderMode.FULL ? fullClassPath() : minimalClassPath();
+        if (urls.isEmpty()) {
+            return parent;
+        }
+        if (mavenProject == null) {
+            return URLClassLoader.newInstance(urls.toArray(new URL[0]), parent);
+        }
+        List<String> classPath = urls.stream().map(URL::toString).collect(Collectors.toList());
+        Map<ClassLoader, Map<List<String>, ClassLoader>> classLoaders = getProjectClassLoaders();
+        synchronized (classLoaders) {
+            return classLoaders.computeIfAbsent(parent, p -> new HashMap<>()).computeIfAbsent(classPath,
+                    c -> URLClassLoader.newInstance(urls.toArray(new URL[0]), parent));
+        }
+    }
+
+    /**
+     * Returns the class loaders created for the project, by parent instance, then by classpath.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<ClassLoader, Map<List<String>, ClassLoader>> getProjectClassLoaders() {
+        synchronized (mavenProject) {
+            Object classLoaders = mavenProject.getContextValue(CLASS_LOADERS_KEY);
+            if (classLoaders == null) {
+                classLoaders = new IdentityHashMap<ClassLoader, Map<List<String>, ClassLoader>>();
+                mavenProject.setContextValue(CLASS_LOADERS_KEY, classLoaders);
+            }
+            return (Map<ClassLoader, Map<List<String>, ClassLoader>>) classLoaders;
+        }
+    }
+
+    private Set<URL> minimalClassPath() {
+        List<String> locations = new ArrayList<>(getResourceLocations());
+        if (credentialsFile != null && (!credentialsFile.contains(":") || credentialsFile.startsWith("classpath:"))) {
+            locations.add(credentialsFile);
+        }
+        Set<URL> urls = new LinkedHashSet<>();
+        for (SchemaLocation location : new SchemaLocations(locations).getSchemaLocations()) {
+            if (!location.isClassPath()) {
+                continue;
+            }
+            File root = findProjectRoot(location);
+            if (root == null) {
+                getLog().debug("Location " + location + " is not in the project, adding the project classpath");
+                return fullClassPath();
+            }
+            urls.add(toUrl(root.getPath()));
+        }
+        return urls;
+    }
+
+    private File findProjectRoot(SchemaLocation location) {
+        String path = location.getPath();
+        int wildcard = StringUtils.indexOfAny(path, '*', '?', '{');
+        if (wildcard >= 0) {
+            path = path.substring(0, Math.max(path.lastIndexOf('/', wildcard), 0));
+        }
+        for (File root : getProjectClassPathRoots()) {
+            if (new File(root, path).exists()) {
+                return root;
+            }
+        }
+        return null;
+    }
+
+    private Set<URL> fullClassPath() {
+        if (mavenProject == null) {
+            return Collections.emptySet();
+        }
+        try {
+            Set<URL> urls = new LinkedHashSet<>();
             List<Stream<String>> streams = new ArrayList<>();
             streams.add(mavenProject.getRuntimeClasspathElements().stream());
             streams.add(mavenProject.getCompileClasspathElements().stream());
             streams.add(mavenProject.getTestClasspathElements().stream());
 
             for (String element : streams.stream().flatMap(s -> s).collect(Collectors.toList())) {
-                urls.add(new File(element).toURI().toURL());
+                urls.add(toUrl(element));
             }
+            return urls;
+        } catch (DependencyResolutionRequiredException e) {
+            throw new ConfigurationException(e.getMessage(), e);
+        }
+    }
 
-            ClassLoader contextClassLoader = URLClassLoader.newInstance(
-                    urls.toArray(new URL[0]),
-                    Thread.currentThread().getContextClassLoader());
-
-            Thread.currentThread().setContextClassLoader(contextClassLoader);
-
-        } catch (DependencyResolutionRequiredException | MalformedURLException e) {
+    private static URL toUrl(String path) {
+        try {
+            return new File(path).toURI().toURL();
+        } catch (MalformedURLException e) {
             throw new ConfigurationException(e.getMessage(), e);
         }
     }
 
-    private BigQuery bigQuery() {
-        return BigQueryOptions.newBuilder()
-                .setCredentials(loadCredentials())
-                .setProjectId(projectId)
-                .build()
-                .getService();
+    BigQuery bigQuery() {
+        Resource credentials = credentialsFile != null ? loadResource(credentialsFile) : null;
+        return BigQueryClients.get(session, projectId, credentialsSource(credentials),
+                () -> metrics.time("credentials", () -> loadCredentials(credentials)),
+                (project, googleCredentials) -> BigQueryOptions.newBuilder()
+                        .setCredentials(googleCredentials)
+                        .setProjectId(project)
+                        // the requests are retried by the scheduler of the service
+                        .setRetrySettings(ServiceOptions.getNoRetrySettings())
+                        .build()
+                        .getService());
+    }
+
+    private static String credentialsSource(Resource credentials) {
+        if (credentials == null) {
+            return "application default credentials";
+        }
+        try {
+            return credentials.getURL().toString();
+        } catch (IOException e) {
+            return credentials.getDescription();
+        }
     }
 
-    private GoogleCredentials loadCredentials() {
+    private GoogleCredentials loadCredentials(Resource credentials) {
         try {
-            if (credentialsFile != null) {
-                return fromStream(loadResource(credentialsFile).getInputStream());
+            if (credentials != null) {
+                return fromStream(credentials.getInputStream());
             }
             return getApplicationDefault();
         } catch (IOException e) {
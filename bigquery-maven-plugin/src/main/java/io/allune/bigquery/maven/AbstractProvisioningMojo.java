@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import io.allune.bigquery.maven.cache.Fingerprint;
+import io.allune.bigquery.maven.config.SchemaLocation;
+import io.allune.bigquery.maven.config.SchemaLocations;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Arrays.asList;
+import static org.apache.commons.lang3.ArrayUtils.isNotEmpty;
+
+/**
+ * Common base class for the mojos provisioning the configured tables and views.<br>
+ */
+public abstract class AbstractProvisioningMojo extends AbstractBigQueryMojo {
+
+    /**
+     * Schema locations for native tables.
+     * For example: bq/schemas, classpath:bq/schemas, file://etc/bigquery/schemas
+     */
+    @Parameter(alias = "nativeSchemaLocations", property = "bigquery.nativeSchemaLocations")
+    private String[] nativeSchemaLocations;
+
+    /**
+     * Schema locations for external tables.
+     * For example: bq/schemas, classpath:bq/schemas, file://etc/bigquery/schemas
+     */
+    @Parameter(alias = "externalSchemaLocations", property = "bigquery.externalSchemaLocations")
+    private String[] externalSchemaLocations;
+
+    /**
+     * SQL locations for views.
+     * For example: bq/schemas, classpath:bq/schemas, file://etc/bigquery/schemas
+     */
+    @Parameter(alias = "viewLocations", property = "bigquery.viewLocations")
+    private String[] viewLocations;
+
+    /**
+     * Fully-qualified URI that points to your data in Google Cloud Storage
+     */
+    @Parameter(property = "bigquery.sourceUri", defaultValue = "gs://data.json")
+    private String sourceUri;
+
+    /**
+     * The source format of the external data
+     */
+    @Parameter(property = "bigquery.formatOptions", defaultValue = "NEWLINE_DELIMITED_JSON")
+    private String formatOptions;
+
+    /**
+     * Variables substituted in the view queries, as $name or ${name}, besides $projectId and $datasetName.
+     * The properties of the project and the user properties are available too
+     */
+    @Parameter(alias = "viewVariables")
+    private Map<String, String> viewVariables;
+
+    public void setNativeSchemaLocations(String[] nativeSchemaLocations) {
+        this.nativeSchemaLocations = nativeSchemaLocations;
+    }
+
+    public void setExternalSchemaLocations(String[] externalSchemaLocations) {
+        this.externalSchemaLocations = externalSchemaLocations;
+    }
+
+    public void setViewLocations(String[] viewLocations) {
+        this.viewLocations = viewLocations;
+    }
+
+    public void setSourceUri(String sourceUri) {
+        this.sourceUri = sourceUri;
+    }
+
+    public void setFormatOptions(String formatOptions) {
+        this.formatOptions = formatOptions;
+    }
+
+    public void setViewVariables(Map<String, String> viewVariables) {
+        this.viewVariables = viewVariables;
+    }
+
+    String[] getNativeSchemaLocations() {
+        return nativeSchemaLocations;
+    }
+
+    String[] getExternalSchemaLocations() {
+        return externalSchemaLocations;
+    }
+
+    String[] getViewLocations() {
+        return viewLocations;
+    }
+
+    String getSourceUri() {
+        return sourceUri;
+    }
+
+    String getFormatOptions() {
+        return formatOptions;
+    }
+
+    @Override
+    Map<String, String> getViewVariables() {
+        Map<String, String> variables = getBuildProperties();
+        if (viewVariables != null) {
+            variables.putAll(viewVariables);
+        }
+        return variables;
+    }
+
+    @Override
+    List<String> getResourceLocations() {
+        List<String> locations = new ArrayList<>(toList(nativeSchemaLocations));
+        locations.addAll(toList(externalSchemaLocations));
+        locations.addAll(toList(viewLocations));
+        return locations;
+    }
+
+    @Override
+    boolean addFingerprintInputs(Fingerprint fingerprint) throws IOException {
+        fingerprint.add("sourceUri", sourceUri).add("formatOptions", formatOptions)
+                .add("viewVariables", new TreeMap<>(getViewVariables()))
+                .add("tableLabels", new TreeMap<>(getTableLabels()));
+        return addLocations(fingerprint, "nativeSchemaLocation", nativeSchemaLocations)
+                && addLocations(fingerprint, "externalSchemaLocation", externalSchemaLocations)
+                && addLocations(fingerprint, "viewLocation", viewLocations);
+    }
+
+    private boolean addLocations(Fingerprint fingerprint, String name, String[] locations) throws IOException {
+        for (SchemaLocation location : new SchemaLocations(toList(locations)).getSchemaLocations()) {
+            List<File> files = resolveFiles(location);
+            if (files.isEmpty()) {
+                getLog().debug("Schema location " + location + " is not in the project, unable to fingerprint it");
+                return false;
+            }
+            fingerprint.add(name, location.getDescriptor());
+            for (File file : files) {
+                fingerprint.addFile(file);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves the location to files of this project. Classpath locations are looked up in the
+     * output and resource directories of the project; locations in dependencies are not resolved.
+     */
+    private List<File> resolveFiles(SchemaLocation location) {
+        List<File> files = new ArrayList<>();
+        if (!location.isClassPath()) {
+            File file = new File(location.getPath());
+            if (file.exists()) {
+                files.add(file);
+            }
+            return files;
+        }
+
+        for (File root : getProjectClassPathRoots()) {
+            if (new File(root, location.getPath()).exists()) {
+                files.add(new File(root, location.getPath()));
+            }
+        }
+        return files;
+    }
+
+    static List<String> toList(String[] locations) {
+        return isNotEmpty(locations) ? asList(locations) : Collections.emptyList();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.bigquery.BigQuery;
+import org.apache.maven.execution.MavenSession;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the BigQuery clients and credentials of a Maven build, so the executions of all goals and
+ * modules reuse the same HTTP transport and access token. Clients are keyed by project id and
+ * credentials source, and are released with the build.
+ * <br>
+ * A parallel build gives each module a clone of the session, all of them sharing the execution request
+ * of the build, which is why the clients are kept by request.
+ */
+final class BigQueryClients {
+
+    private static final Map<Object, SessionClients> SESSIONS = new WeakHashMap<>();
+
+    private BigQueryClients() {
+        // no op
+    }
+
+    /**
+     * Returns the client of the session for the project and credentials source, creating it and loading
+     * the credentials only the first time they are used in the session. Nothing is cached without a session.
+     */
+    static BigQuery get(MavenSession session, String projectId, String credentialsSource,
+                        Supplier<GoogleCredentials> credentialsLoader,
+                        BiFunction<String, GoogleCredentials, BigQuery> clientFactory) {
+        if (session == null || session.getRequest() == null) {
+            return clientFactory.apply(projectId, credentialsLoader.get());
+        }
+        SessionClients sessionClients;
+        synchronized (SESSIONS) {
+            sessionClients = SESSIONS.computeIfAbsent(session.getRequest(), request -> new SessionClients());
+        }
+        return sessionClients.clients.computeIfAbsent(new ClientKey(projectId, credentialsSource), key ->
+                clientFactory.apply(projectId,
+                        sessionClients.credentials.computeIfAbsent(credentialsSource, source -> credentialsLoader.get())));
+    }
+
+    static void clear() {
+        synchronized (SESSIONS) {
+            SESSIONS.clear();
+        }
+    }
+
+    private static final class SessionClients {
+        private final Map<String, GoogleCredentials> credentials = new ConcurrentHashMap<>();
+        private final Map<ClientKey, BigQuery> clients = new ConcurrentHashMap<>();
+    }
+
+    private static final class ClientKey {
+        private final String projectId;
+        private final String credentialsSource;
+
+        private ClientKey(String projectId, String credentialsSource) {
+            this.projectId = projectId;
+            this.credentialsSource = credentialsSource;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            ClientKey clientKey = (ClientKey) o;
+
+            return Objects.equals(projectId, clientKey.projectId)
+                    && Objects.equals(credentialsSource, clientKey.credentialsSource);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, credentialsSource);
+        }
+    }
+}
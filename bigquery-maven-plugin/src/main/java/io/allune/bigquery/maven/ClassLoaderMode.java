@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+/**
+ * How the classpath of the project is made available to {@code classpath:} schema, view and
+ * credentials locations.
+ */
+public enum ClassLoaderMode {
+
+    /**
+     * Adds only the output and resource directories of the project that hold the {@code classpath:}
+     * locations, and nothing at all when every location is a {@code file:} path. Falls back to
+     * {@link #FULL} when a location is not found in the project.
+     */
+    MINIMAL,
+
+    /**
+     * Adds the runtime, compile and test classpath of the project.
+     */
+    FULL
+}
@@ -18,10 +18,15 @@ package io.allune.bigquery.maven;
 
 import com.google.cloud.bigquery.BigQueryException;
 import io.allune.bigquery.maven.service.BigQueryServiceImpl;
+import io.allune.bigquery.maven.service.TableSelection;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
+import java.util.List;
+
+import static io.allune.bigquery.maven.AbstractProvisioningMojo.toList;
+
 /**
  * Maven goal to delete the BigQuery tables and dataset
  */
@@ -40,6 +45,27 @@ public class CleanMojo extends AbstractBigQueryMojo {
     @Parameter(alias = "forceDeleteDataset", property = "bigquery.forceDeleteDataset", defaultValue = "false")
     private boolean forceDeleteDataset;
 
+    /**
+     * Schema and view locations limiting the tables deleted to those they define.
+     * For example: bq/schemas, classpath:bq/schemas, file://etc/bigquery/schemas
+     */
+    @Parameter(alias = "tableLocations", property = "bigquery.tableLocations")
+    private String[] tableLocations;
+
+    /**
+     * Wildcard patterns, with * and ?, limiting the tables deleted to those whose name matches one of them
+     */
+    @Parameter(alias = "tablePatterns", property = "bigquery.tablePatterns")
+    private String[] tablePatterns;
+
+    /**
+     * The number of tables above which deleting the tables deletes the dataset with its contents and
+     * creates it again with the same location, labels, default expiration and access entries, instead of
+     * deleting the tables one by one. Zero, the default, always deletes the tables one by one
+     */
+    @Parameter(alias = "recreateDatasetThreshold", property = "bigquery.recreateDatasetThreshold", defaultValue = "0")
+    private int recreateDatasetThreshold;
+
     public void setDeleteDataset(boolean deleteDataset) {
         this.deleteDataset = deleteDataset;
     }
@@ -52,6 +78,23 @@ public class CleanMojo extends AbstractBigQueryMojo {
         this.forceDeleteDataset = forceDeleteDataset;
     }
 
+    public void setTableLocations(String[] tableLocations) {
+        this.tableLocations = tableLocations;
+    }
+
+    public void setTablePatterns(String[] tablePatterns) {
+        this.tablePatterns = tablePatterns;
+    }
+
+    public void setRecreateDatasetThreshold(int recreateDatasetThreshold) {
+        this.recreateDatasetThreshold = recreateDatasetThreshold;
+    }
+
+    @Override
+    boolean invalidatesAllFingerprints() {
+        return true;
+    }
+
     @Override
     protected void doExecute(BigQueryServiceImpl bigQueryService) throws MojoExecutionException {
         try {
@@ -61,14 +104,34 @@ public class CleanMojo extends AbstractBigQueryMojo {
             } else {
 
                 if (deleteTables) {
-                    bigQueryService.deleteTables();
+                    deleteTables(bigQueryService);
                 }
                 if (deleteDataset) {
                     bigQueryService.deleteDataset(false);
                 }
             }
-        } catch (BigQueryException e) {
+        } catch (ConfigurationException | BigQueryException | ProvisioningException e) {
             throw new MojoExecutionException(e.getMessage(), e);
         }
     }
+
+    private void deleteTables(BigQueryServiceImpl bigQueryService) {
+        TableSelection selection = TableSelection.builder()
+                .locations(toList(tableLocations))
+                .namePatterns(toList(tablePatterns))
+                .labels(getTableLabels())
+                .build();
+        // recreating the dataset is pointless when it is deleted next
+        int threshold = deleteDataset ? 0 : recreateDatasetThreshold;
+        if (selection.isAll() && threshold == 0) {
+            bigQueryService.deleteTables();
+        } else {
+            bigQueryService.deleteTables(selection, threshold);
+        }
+    }
+
+    @Override
+    List<String> getResourceLocations() {
+        return toList(tableLocations);
+    }
 }
\ No newline at end of file
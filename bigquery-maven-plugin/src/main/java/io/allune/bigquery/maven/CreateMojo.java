@@ -17,11 +17,18 @@
 package io.allune.bigquery.maven;
 
 import com.google.cloud.bigquery.BigQueryException;
+import io.allune.bigquery.maven.cache.Fingerprint;
 import io.allune.bigquery.maven.service.BigQueryServiceImpl;
+import io.allune.bigquery.maven.service.ProvisioningPlan;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
 import static java.util.Arrays.asList;
 import static org.apache.commons.lang3.ArrayUtils.isNotEmpty;
 
@@ -29,28 +36,7 @@ import static org.apache.commons.lang3.ArrayUtils.isNotEmpty;
  * Maven goal to create the BigQuery tables and views for the configured dataset.
  */
 @Mojo(name = "create")
-public class CreateMojo extends AbstractBigQueryMojo {
-
-    /**
-     * Schema locations for native tables.
-     * For example: bq/schemas, classpath:bq/schemas, file://etc/bigquery/schemas
-     */
-    @Parameter(alias = "nativeSchemaLocations", property = "bigquery.nativeSchemaLocations")
-    private String[] nativeSchemaLocations;
-
-    /**
-     * Schema locations for external tables.
-     * For example: bq/schemas, classpath:bq/schemas, file://etc/bigquery/schemas
-     */
-    @Parameter(alias = "externalSchemaLocations", property = "bigquery.externalSchemaLocations")
-    private String[] externalSchemaLocations;
-
-    /**
-     * SQL locations for views.
-     * For example: bq/schemas, classpath:bq/schemas, file://etc/bigquery/schemas
-     */
-    @Parameter(alias = "viewLocations", property = "bigquery.viewLocations")
-    private String[] viewLocations;
+public class CreateMojo extends AbstractProvisioningMojo {
 
     /**
      * Whether to create the dataset before creating the tables or views
@@ -59,61 +45,113 @@ public class CreateMojo extends AbstractBigQueryMojo {
     private boolean createDataset;
 
     /**
-     * Fully-qualified URI that points to your data in Google Cloud Storage
+     * DIRECT to create the tables and views from the schema and view files, PLAN to only read them
+     * into the plan file, APPLY to create the tables and views of the plan file
      */
-    @Parameter(property = "bigquery.sourceUri", defaultValue = "gs://data.json")
-    private String sourceUri;
+    @Parameter(alias = "mode", property = "bigquery.mode", defaultValue = "DIRECT")
+    private ProvisioningMode mode = ProvisioningMode.DIRECT;
 
     /**
-     * The source format of the external data
+     * The plan file written in PLAN mode and read in APPLY mode
      */
-    @Parameter(property = "bigquery.formatOptions", defaultValue = "NEWLINE_DELIMITED_JSON")
-    private String formatOptions;
+    @Parameter(alias = "planFile", property = "bigquery.planFile", defaultValue = "${project.build.directory}/bigquery/plan.json")
+    private File planFile;
+
+    private ProvisioningPlan plan;
 
-    public void setNativeSchemaLocations(String[] nativeSchemaLocations) {
-        this.nativeSchemaLocations = nativeSchemaLocations;
+    public void setCreateDataset(boolean createDataset) {
+        this.createDataset = createDataset;
     }
 
-    public void setExternalSchemaLocations(String[] externalSchemaLocations) {
-        this.externalSchemaLocations = externalSchemaLocations;
+    public void setMode(ProvisioningMode mode) {
+        this.mode = mode;
     }
 
-    public void setViewLocations(String[] viewLocations) {
-        this.viewLocations = viewLocations;
+    public void setPlanFile(File planFile) {
+        this.planFile = planFile;
     }
 
-    public void setCreateDataset(boolean createDataset) {
-        this.createDataset = createDataset;
+    @Override
+    boolean isOffline() {
+        return mode == ProvisioningMode.PLAN;
     }
 
-    public void setSourceUri(String sourceUri) {
-        this.sourceUri = sourceUri;
+    @Override
+    List<String> getResourceLocations() {
+        return mode == ProvisioningMode.APPLY ? Collections.emptyList() : super.getResourceLocations();
     }
 
-    public void setFormatOptions(String formatOptions) {
-        this.formatOptions = formatOptions;
+    @Override
+    boolean addFingerprintInputs(Fingerprint fingerprint) throws IOException {
+        fingerprint.add("createDataset", createDataset).add("mode", mode);
+        if (mode == ProvisioningMode.APPLY) {
+            if (!planFile.isFile()) {
+                return false;
+            }
+            fingerprint.addFile(planFile);
+            return true;
+        }
+        return super.addFingerprintInputs(fingerprint);
     }
 
     @Override
     protected void doExecute(BigQueryServiceImpl bigQueryService) throws MojoExecutionException {
         try {
+            if (mode == ProvisioningMode.PLAN) {
+                writePlan(bigQueryService);
+                return;
+            }
+
+            if (mode == ProvisioningMode.DIRECT) {
+                // reads and validates every definition before any request, the creation below reuses them
+                bigQueryService.plan(getSourceUri(), getFormatOptions(), toList(getNativeSchemaLocations()),
+                        toList(getExternalSchemaLocations()), toList(getViewLocations()));
+            }
+
             if (createDataset) {
                 bigQueryService.createDataset(getDataLocation());
             }
 
-            if (isNotEmpty(nativeSchemaLocations)) {
-                bigQueryService.createNativeTables(asList(nativeSchemaLocations));
+            if (mode == ProvisioningMode.APPLY) {
+                bigQueryService.apply(readPlan());
+                return;
+            }
+
+            if (isNotEmpty(getNativeSchemaLocations())) {
+                bigQueryService.createNativeTables(asList(getNativeSchemaLocations()));
             }
 
-            if (isNotEmpty(externalSchemaLocations)) {
-                bigQueryService.createExternalTables(sourceUri, formatOptions, asList(externalSchemaLocations));
+            if (isNotEmpty(getExternalSchemaLocations())) {
+                bigQueryService.createExternalTables(getSourceUri(), getFormatOptions(), asList(getExternalSchemaLocations()));
             }
 
-            if (isNotEmpty(viewLocations)) {
-                bigQueryService.createViews(asList(viewLocations));
+            if (isNotEmpty(getViewLocations())) {
+                bigQueryService.createViews(asList(getViewLocations()));
             }
-        } catch (ConfigurationException | BigQueryException e) {
+        } catch (ConfigurationException | BigQueryException | ProvisioningException e) {
             throw new MojoExecutionException(e.getMessage(), e);
         }
     }
+
+    private void writePlan(BigQueryServiceImpl bigQueryService) throws MojoExecutionException {
+        ProvisioningPlan newPlan = bigQueryService.plan(getSourceUri(), getFormatOptions(),
+                toList(getNativeSchemaLocations()), toList(getExternalSchemaLocations()), toList(getViewLocations()));
+        try {
+            newPlan.writeTo(planFile, getPluginVersion());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write plan " + planFile + ": " + e.getMessage(), e);
+        }
+        getLog().info("Plan of " + newPlan + " written to " + planFile);
+    }
+
+    /**
+     * Reads the plan file once, whatever the number of datasets it is applied to.
+     */
+    private synchronized ProvisioningPlan readPlan() {
+        if (plan == null) {
+            plan = ProvisioningPlan.readFrom(planFile, getPluginVersion());
+            getLog().info("Applying plan of " + plan + " from " + planFile);
+        }
+        return plan;
+    }
 }
\ No newline at end of file
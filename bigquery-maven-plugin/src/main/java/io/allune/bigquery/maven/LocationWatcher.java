@@ -0,0 +1,281 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Watches the schema and view files of the project for changes, reporting them in batches. A batch
+ * is complete once no file has changed for the debounce delay, so that saving several files, or an
+ * editor writing a file in several steps, results in a single batch holding the final state of each file.
+ * <br>
+ * Hidden files and backup files ending with {@code ~}, written by editors while saving, are ignored.
+ */
+final class LocationWatcher implements Closeable {
+
+    enum Kind {
+        NATIVE_TABLES, EXTERNAL_TABLES, VIEWS
+    }
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final WatchService watchService;
+    private final long debounceMillis;
+    private final List<WatchedLocation> locations = new ArrayList<>();
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Set<Path> knownFiles = new TreeSet<>();
+
+    LocationWatcher(long debounceMillis) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Watches the files of a location of the file system: a single file, a directory whose files are
+     * watched recursively or an Ant-style pattern such as {@code src/main/bq/&#42;&#42;/&#42;.json}.
+     * Returns false if the location does not exist.
+     */
+    boolean watch(Kind kind, String location) throws IOException {
+        String path = location.replace('\\', '/');
+        String pattern = null;
+        if (PATH_MATCHER.isPattern(path)) {
+            int rootEnd = path.lastIndexOf('/', firstWildcard(path));
+            pattern = path.substring(rootEnd + 1);
+            path = rootEnd < 0 ? "." : path.substring(0, rootEnd + 1);
+        }
+        Path root = Paths.get(path).toAbsolutePath().normalize();
+        if (Files.isRegularFile(root) && pattern == null) {
+            locations.add(new WatchedLocation(kind, root.getParent(), root.getFileName().toString(), false));
+            register(root.getParent());
+            knownFiles.add(root);
+            return true;
+        }
+        if (!Files.isDirectory(root)) {
+            return false;
+        }
+        locations.add(new WatchedLocation(kind, root, pattern, true));
+        registerAll(root);
+        return true;
+    }
+
+    /**
+     * Waits for a watched file to change, then until no other file changes for the debounce delay.
+     */
+    Changes take() throws InterruptedException, IOException {
+        Set<Path> paths = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            Path directory = directories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    // some events are lost, the files of every location are pushed again
+                    addAllFiles(paths);
+                } else if (directory != null) {
+                    Path path = directory.resolve((Path) event.context());
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(path) && isInRecursiveLocation(path)) {
+                        registerAll(path);
+                        addFiles(path, paths);
+                    } else {
+                        paths.add(path);
+                    }
+                }
+            }
+            if (!key.reset()) {
+                directories.remove(key);
+            }
+            key = watchService.poll(debounceMillis, MILLISECONDS);
+        }
+        return toChanges(paths);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private Changes toChanges(Set<Path> paths) {
+        Changes changes = new Changes();
+        Set<String> removedTables = new LinkedHashSet<>();
+        Set<String> changedTables = new LinkedHashSet<>();
+        for (Path path : paths) {
+            if (Files.isRegularFile(path)) {
+                knownFiles.add(path);
+                WatchedLocation location = locate(path);
+                if (location != null) {
+                    changes.files.get(location.kind).add("file:" + path);
+                    changedTables.add(tableName(path));
+                }
+            } else if (!Files.exists(path)) {
+                // the path of a deleted directory is that of the files it held
+                for (Iterator<Path> files = knownFiles.iterator(); files.hasNext(); ) {
+                    Path file = files.next();
+                    if (file.startsWith(path)) {
+                        files.remove();
+                        if (locate(file) != null) {
+                            removedTables.add(tableName(file));
+                        }
+                    }
+                }
+            }
+        }
+        // a file moved to another location, or turned from a table into a view, is not removed
+        removedTables.removeAll(changedTables);
+        changes.removedTables.addAll(removedTables);
+        return changes;
+    }
+
+    private WatchedLocation locate(Path file) {
+        String filename = file.getFileName().toString();
+        if (filename.startsWith(".") || filename.endsWith("~")) {
+            return null;
+        }
+        return locations.stream().filter(location -> location.matches(file)).findFirst().orElse(null);
+    }
+
+    private static String tableName(Path file) {
+        return FilenameUtils.removeExtension(file.getFileName().toString());
+    }
+
+    private boolean isInRecursiveLocation(Path directory) {
+        return locations.stream().anyMatch(location -> location.recursive && directory.startsWith(location.root));
+    }
+
+    private void addAllFiles(Set<Path> paths) throws IOException {
+        for (WatchedLocation location : locations) {
+            addFiles(location.root, paths);
+        }
+    }
+
+    private static void addFiles(Path directory, Set<Path> paths) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            paths.addAll(files.filter(Files::isRegularFile).sorted().collect(toList()));
+        }
+    }
+
+    private void registerAll(Path root) throws IOException {
+        try (Stream<Path> tree = Files.walk(root)) {
+            for (Path path : tree.collect(toList())) {
+                if (Files.isDirectory(path)) {
+                    register(path);
+                } else {
+                    knownFiles.add(path);
+                }
+            }
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        if (!directories.containsValue(directory)) {
+            directories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), directory);
+        }
+    }
+
+    private static int firstWildcard(String path) {
+        int index = path.length();
+        for (char wildcard : new char[]{'*', '?', '{'}) {
+            int position = path.indexOf(wildcard);
+            if (position >= 0 && position < index) {
+                index = position;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * The files changed in a batch, as {@code file:} locations by kind, and the tables and views whose
+     * file has been deleted.
+     */
+    static final class Changes {
+
+        private final Map<Kind, List<String>> files = new EnumMap<>(Kind.class);
+        private final List<String> removedTables = new ArrayList<>();
+
+        private Changes() {
+            for (Kind kind : Kind.values()) {
+                files.put(kind, new ArrayList<>());
+            }
+        }
+
+        List<String> getFiles(Kind kind) {
+            return Collections.unmodifiableList(files.get(kind));
+        }
+
+        List<String> getRemovedTables() {
+            return Collections.unmodifiableList(removedTables);
+        }
+
+        boolean isEmpty() {
+            return removedTables.isEmpty() && files.values().stream().allMatch(List::isEmpty);
+        }
+
+        int size() {
+            return removedTables.size() + files.values().stream().mapToInt(List::size).sum();
+        }
+    }
+
+    private static final class WatchedLocation {
+        private final Kind kind;
+        private final Path root;
+        private final String pattern;
+        private final boolean recursive;
+
+        private WatchedLocation(Kind kind, Path root, String pattern, boolean recursive) {
+            this.kind = kind;
+            this.root = root;
+            this.pattern = pattern;
+            this.recursive = recursive;
+        }
+
+        private boolean matches(Path path) {
+            if (!path.startsWith(root) || path.equals(root)) {
+                return false;
+            }
+            String relativePath = root.relativize(path).toString().replace('\\', '/');
+            return pattern == null ? recursive : PATH_MATCHER.match(pattern, relativePath);
+        }
+    }
+}
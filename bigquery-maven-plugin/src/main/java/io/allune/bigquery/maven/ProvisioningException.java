@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import java.util.List;
+
+/**
+ * Thrown when one or more BigQuery operations of a batch fail. The first failure is
+ * the cause and the remaining ones are attached as suppressed exceptions.
+ */
+public class ProvisioningException extends RuntimeException {
+
+    private final List<RuntimeException> failures;
+
+    public ProvisioningException(String message, List<RuntimeException> failures) {
+        super(message, failures.isEmpty() ? null : failures.get(0));
+        this.failures = failures;
+        for (int i = 1; i < failures.size(); i++) {
+            addSuppressed(failures.get(i));
+        }
+    }
+
+    public List<RuntimeException> getFailures() {
+        return failures;
+    }
+}
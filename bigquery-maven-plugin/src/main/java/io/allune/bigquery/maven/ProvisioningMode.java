@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+/**
+ * How the {@code create} goal provisions the tables and views.
+ */
+public enum ProvisioningMode {
+
+    /**
+     * Reads the schema and view files and creates the tables and views.
+     */
+    DIRECT,
+
+    /**
+     * Reads the schema and view files into a plan file, without creating a BigQuery client or making
+     * any request.
+     */
+    PLAN,
+
+    /**
+     * Creates the tables and views of a plan file, without reading the schema and view files.
+     */
+    APPLY
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import com.google.cloud.bigquery.BigQueryException;
+import io.allune.bigquery.maven.cache.Fingerprint;
+import io.allune.bigquery.maven.service.BigQueryServiceImpl;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.IOException;
+
+/**
+ * Maven goal to bring the configured dataset in line with the tables and views defined locally.
+ * Only the tables and views that are missing or differ from their definition are created or updated.
+ */
+@Mojo(name = "sync")
+public class SyncMojo extends AbstractProvisioningMojo {
+
+    /**
+     * Whether to create the dataset if it does not exist
+     */
+    @Parameter(property = "bigquery.createDataset", defaultValue = "true")
+    private boolean createDataset;
+
+    /**
+     * Whether to delete the tables and views of the dataset that are not defined locally
+     */
+    @Parameter(property = "bigquery.deleteRemoved", defaultValue = "false")
+    private boolean deleteRemoved;
+
+    public void setCreateDataset(boolean createDataset) {
+        this.createDataset = createDataset;
+    }
+
+    public void setDeleteRemoved(boolean deleteRemoved) {
+        this.deleteRemoved = deleteRemoved;
+    }
+
+    @Override
+    boolean addFingerprintInputs(Fingerprint fingerprint) throws IOException {
+        return super.addFingerprintInputs(fingerprint.add("createDataset", createDataset).add("deleteRemoved", deleteRemoved));
+    }
+
+    @Override
+    protected void doExecute(BigQueryServiceImpl bigQueryService) throws MojoExecutionException {
+        try {
+            // reads and validates every definition before any request, the synchronisation below reuses them
+            bigQueryService.plan(getSourceUri(), getFormatOptions(), toList(getNativeSchemaLocations()),
+                    toList(getExternalSchemaLocations()), toList(getViewLocations()));
+
+            if (createDataset && !bigQueryService.datasetExists()) {
+                bigQueryService.createDataset(getDataLocation());
+            }
+
+            bigQueryService.sync(getSourceUri(), getFormatOptions(), toList(getNativeSchemaLocations()),
+                    toList(getExternalSchemaLocations()), toList(getViewLocations()), deleteRemoved);
+        } catch (ConfigurationException | BigQueryException | ProvisioningException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+}
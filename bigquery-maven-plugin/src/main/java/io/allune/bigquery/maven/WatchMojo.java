@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import com.google.cloud.bigquery.BigQueryException;
+import io.allune.bigquery.maven.LocationWatcher.Changes;
+import io.allune.bigquery.maven.LocationWatcher.Kind;
+import io.allune.bigquery.maven.cache.Fingerprint;
+import io.allune.bigquery.maven.config.SchemaLocation;
+import io.allune.bigquery.maven.config.SchemaLocations;
+import io.allune.bigquery.maven.service.BigQueryServiceImpl;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Maven goal to keep a development dataset in line with the tables and views defined locally while
+ * they are being edited. The dataset is synchronised once, then every batch of changed schema and view
+ * files is pushed as soon as it is saved, through the same client, until the build is interrupted.
+ * Only the changed tables and views are read and updated; those whose file is deleted are deleted.
+ * <br>
+ * Classpath locations are watched in the resource directories of the project, so that editing a
+ * resource does not wait for it to be copied to the output directory.
+ */
+@Mojo(name = "watch")
+public class WatchMojo extends AbstractProvisioningMojo {
+
+    /**
+     * Whether to create the dataset if it does not exist
+     */
+    @Parameter(property = "bigquery.createDataset", defaultValue = "true")
+    private boolean createDataset;
+
+    /**
+     * The time, in milliseconds, without any further change after which the changed files are pushed
+     */
+    @Parameter(alias = "debounce", property = "bigquery.debounce", defaultValue = "100")
+    private long debounce;
+
+    public void setCreateDataset(boolean createDataset) {
+        this.createDataset = createDataset;
+    }
+
+    public void setDebounce(long debounce) {
+        this.debounce = debounce;
+    }
+
+    @Override
+    boolean addFingerprintInputs(Fingerprint fingerprint) {
+        // watching is never up to date
+        return false;
+    }
+
+    @Override
+    boolean invalidatesAllFingerprints() {
+        return true;
+    }
+
+    @Override
+    protected void doExecute(BigQueryServiceImpl bigQueryService) throws MojoExecutionException {
+        try (LocationWatcher watcher = new LocationWatcher(debounce)) {
+            // watches before synchronising, so that no change made meanwhile is missed
+            boolean watching = watch(watcher, Kind.NATIVE_TABLES, getNativeSchemaLocations())
+                    | watch(watcher, Kind.EXTERNAL_TABLES, getExternalSchemaLocations())
+                    | watch(watcher, Kind.VIEWS, getViewLocations());
+            if (!watching) {
+                throw new MojoExecutionException("None of the schema and view locations is in the project");
+            }
+
+            bigQueryService.plan(getSourceUri(), getFormatOptions(), toList(getNativeSchemaLocations()),
+                    toList(getExternalSchemaLocations()), toList(getViewLocations()));
+            if (createDataset && !bigQueryService.datasetExists()) {
+                bigQueryService.createDataset(getDataLocation());
+            }
+            bigQueryService.sync(getSourceUri(), getFormatOptions(), toList(getNativeSchemaLocations()),
+                    toList(getExternalSchemaLocations()), toList(getViewLocations()), false);
+
+            getLog().info("Watching the schema and view locations for changes, press Ctrl+C to stop");
+            while (!Thread.currentThread().isInterrupted()) {
+                push(bigQueryService, watcher.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to watch the schema and view locations: " + e.getMessage(), e);
+        } catch (ConfigurationException | BigQueryException | ProvisioningException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Pushes the changes, reporting a failure without stopping, as the next edit may well fix it.
+     */
+    private void push(BigQueryServiceImpl bigQueryService, Changes changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            bigQueryService.syncFiles(getSourceUri(), getFormatOptions(), changes.getFiles(Kind.NATIVE_TABLES),
+                    changes.getFiles(Kind.EXTERNAL_TABLES), changes.getFiles(Kind.VIEWS), changes.getRemovedTables());
+            getLog().info(changes.size() + " change(s) pushed in " + NANOSECONDS.toMillis(System.nanoTime() - start)
+                    + " ms");
+        } catch (ConfigurationException | BigQueryException | ProvisioningException e) {
+            getLog().error(e.getMessage());
+        }
+    }
+
+    private boolean watch(LocationWatcher watcher, Kind kind, String[] locations) throws IOException {
+        boolean watching = false;
+        for (SchemaLocation location : new SchemaLocations(toList(locations)).getSchemaLocations()) {
+            boolean found = false;
+            for (String path : resolvePaths(location)) {
+                found |= watcher.watch(kind, path);
+            }
+            if (!found) {
+                getLog().warn("Schema location " + location + " is not in the project, unable to watch it");
+            }
+            watching |= found;
+        }
+        return watching;
+    }
+
+    /**
+     * Resolves the location to paths of the file system, classpath locations being looked up in the
+     * resource directories of the project.
+     */
+    private List<String> resolvePaths(SchemaLocation location) {
+        List<String> paths = new ArrayList<>();
+        if (!location.isClassPath()) {
+            paths.add(location.getPath());
+        } else if (getMavenProject() != null) {
+            List<Resource> resources = new ArrayList<>(getMavenProject().getResources());
+            resources.addAll(getMavenProject().getTestResources());
+            resources.forEach(resource -> paths.add(new File(resource.getDirectory(), location.getPath()).getPath()));
+        }
+        return paths;
+    }
+}
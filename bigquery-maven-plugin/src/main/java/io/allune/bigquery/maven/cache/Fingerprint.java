@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.cache;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * SHA-256 digest of everything an execution depends on: its configuration and the
+ * contents of the schema and view files it reads.
+ */
+public final class Fingerprint {
+
+    private final Hasher hasher = Hashing.sha256().newHasher();
+
+    public Fingerprint add(String name, Object value) {
+        hasher.putString(name, UTF_8).putByte((byte) 0)
+                .putString(String.valueOf(value), UTF_8).putByte((byte) 0);
+        return this;
+    }
+
+    /**
+     * Adds the contents of the file, or of every file below the directory, in a stable order.
+     */
+    public Fingerprint addFile(File file) throws IOException {
+        Path root = file.toPath();
+        if (Files.isDirectory(root)) {
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(root)) {
+                files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path path : files) {
+                addContents(root.relativize(path).toString().replace('\\', '/'), path);
+            }
+        } else {
+            addContents(file.getName(), root);
+        }
+        return this;
+    }
+
+    public String value() {
+        return hasher.hash().toString();
+    }
+
+    private void addContents(String name, Path path) throws IOException {
+        byte[] contents = Files.readAllBytes(path);
+        hasher.putString(name, UTF_8).putByte((byte) 0).putInt(contents.length).putBytes(contents);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.cache;
+
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Remembers the fingerprint of the last successful execution of each goal against a dataset,
+ * so that an execution whose inputs have not changed since can be skipped.
+ */
+public class FingerprintCache {
+
+    private final File directory;
+
+    public FingerprintCache(File directory) {
+        this.directory = directory;
+    }
+
+    public boolean isUpToDate(String projectId, String dataset, String goal, String fingerprint) {
+        return fingerprint.equals(load(projectId, dataset).getProperty(goal));
+    }
+
+    public void store(String projectId, String dataset, String goal, String fingerprint) throws IOException {
+        Properties fingerprints = load(projectId, dataset);
+        fingerprints.setProperty(goal, fingerprint);
+        Files.createDirectories(directory.toPath());
+        try (OutputStream out = Files.newOutputStream(file(projectId, dataset).toPath())) {
+            fingerprints.store(out, "Fingerprints of " + projectId + ":" + dataset);
+        }
+    }
+
+    public void invalidate(String projectId, String dataset, String goal) throws IOException {
+        Properties fingerprints = load(projectId, dataset);
+        if (fingerprints.remove(goal) != null) {
+            try (OutputStream out = Files.newOutputStream(file(projectId, dataset).toPath())) {
+                fingerprints.store(out, "Fingerprints of " + projectId + ":" + dataset);
+            }
+        }
+    }
+
+    public void invalidateAll(String projectId, String dataset) throws IOException {
+        Files.deleteIfExists(file(projectId, dataset).toPath());
+    }
+
+    private Properties load(String projectId, String dataset) {
+        Properties fingerprints = new Properties();
+        File file = file(projectId, dataset);
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                fingerprints.load(in);
+            } catch (IOException e) {
+                // an unreadable cache is an empty cache
+                fingerprints.clear();
+            }
+        }
+        return fingerprints;
+    }
+
+    private File file(String projectId, String dataset) {
+        String key = Hashing.sha256().hashString(projectId + ":" + dataset, UTF_8).toString().substring(0, 16);
+        return new File(directory, "fingerprints-" + key + ".properties");
+    }
+}
@@ -60,7 +60,7 @@ public final class SchemaLocation implements Comparable<SchemaLocation> {
         return path;
     }
 
-    boolean isClassPath() {
+    public boolean isClassPath() {
         return CLASSPATH_PREFIX.equals(prefix);
     }
 
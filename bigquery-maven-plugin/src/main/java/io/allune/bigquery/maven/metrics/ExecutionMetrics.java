@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records how many times each phase of an execution ran and how long it took, so that the time of a
+ * goal can be broken down into class loading, credentials, resource scanning, parsing and requests.
+ * Phases may be timed concurrently by several threads.
+ */
+public class ExecutionMetrics {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public <T> T time(String phase, Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void time(String phase, Runnable task) {
+        time(phase, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public void record(String phase, long nanos) {
+        timers.computeIfAbsent(phase, name -> new Timer()).add(nanos);
+    }
+
+    /**
+     * Returns the statistics of every phase, in milliseconds, in the order the phases were first recorded.
+     */
+    public Map<String, Map<String, Number>> getPhases() {
+        Map<String, Map<String, Number>> phases = new LinkedHashMap<>();
+        timers.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a.firstNanos, b.firstNanos)))
+                .forEach(entry -> {
+                    Map<String, Number> statistics = entry.getValue().statistics();
+                    if (statistics != null) {
+                        phases.put(entry.getKey(), statistics);
+                    }
+                });
+        return phases;
+    }
+
+    /**
+     * Returns one line per phase, for the build log.
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        getPhases().forEach((phase, statistics) -> lines.add(String.format(
+                "%s: %d in %.1f s (p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms)", phase,
+                statistics.get("count").longValue(), statistics.get("totalMillis").doubleValue() / 1e3,
+                statistics.get("p50Millis").doubleValue(), statistics.get("p90Millis").doubleValue(),
+                statistics.get("p99Millis").doubleValue(), statistics.get("maxMillis").doubleValue())));
+        return lines;
+    }
+
+    /**
+     * Writes the given attributes of the execution followed by the statistics of its phases as JSON.
+     */
+    public void writeReport(File file, Map<String, Object> attributes) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>(attributes);
+        report.put("phases", getPhases());
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null) {
+            Files.createDirectories(directory.toPath());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 1000) / 1000.0;
+    }
+
+    private static final class Timer {
+
+        private final long firstNanos = System.nanoTime();
+        private long[] samples = new long[16];
+        private int count;
+
+        private synchronized void add(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        private Map<String, Number> statistics() {
+            long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(samples, count);
+            }
+            if (sorted.length == 0) {
+                return null;
+            }
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long sample : sorted) {
+                total += sample;
+            }
+            Map<String, Number> statistics = new LinkedHashMap<>();
+            statistics.put("count", sorted.length);
+            statistics.put("totalMillis", toMillis(total));
+            statistics.put("minMillis", toMillis(sorted[0]));
+            statistics.put("meanMillis", toMillis(total / sorted.length));
+            for (double percentile : PERCENTILES) {
+                // nearest rank
+                int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+                statistics.put("p" + (int) percentile + "Millis", toMillis(sorted[Math.max(rank - 1, 0)]));
+            }
+            statistics.put("maxMillis", toMillis(sorted[sorted.length - 1]));
+            return statistics;
+        }
+    }
+}
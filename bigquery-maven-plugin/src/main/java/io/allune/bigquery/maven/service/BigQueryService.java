@@ -22,13 +22,30 @@ public interface BigQueryService {
 
     void createDataset(String dataLocation);
 
+    boolean datasetExists();
+
+    List<String> listDatasets();
+
     void createNativeTables(List<String> locations);
 
     void createExternalTables(String sourceUri, String formatOptions, List<String> locations);
 
     void createViews(List<String> locations);
 
+    ProvisioningPlan plan(String sourceUri, String formatOptions, List<String> nativeSchemaLocations,
+                          List<String> externalSchemaLocations, List<String> viewLocations);
+
+    void apply(ProvisioningPlan plan);
+
+    void sync(String sourceUri, String formatOptions, List<String> nativeSchemaLocations,
+              List<String> externalSchemaLocations, List<String> viewLocations, boolean deleteRemoved);
+
+    void syncFiles(String sourceUri, String formatOptions, List<String> nativeSchemaFiles,
+                   List<String> externalSchemaFiles, List<String> viewFiles, List<String> removedTables);
+
     void deleteTables();
 
+    void deleteTables(TableSelection selection, int recreateDatasetThreshold);
+
     void deleteDataset(boolean forceDelete);
 }
@@ -19,108 +19,356 @@ package io.allune.bigquery.maven.service;
 import com.google.api.gax.paging.Page;
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.BigQuery.DatasetDeleteOption;
+import com.google.cloud.bigquery.BigQuery.DatasetListOption;
+import com.google.cloud.bigquery.BigQuery.TableListOption;
 import com.google.cloud.bigquery.Dataset;
 import com.google.cloud.bigquery.DatasetInfo;
 import com.google.cloud.bigquery.Table;
 import com.google.cloud.bigquery.TableDefinition;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
+import com.google.cloud.bigquery.ViewDefinition;
+import com.google.common.collect.Iterators;
 import io.allune.bigquery.maven.ConfigurationException;
-import io.allune.bigquery.maven.config.SchemaLocations;
+import io.allune.bigquery.maven.ProvisioningException;
+import io.allune.bigquery.maven.metrics.ExecutionMetrics;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.plugin.logging.Log;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
-import org.springframework.core.io.support.ResourcePatternResolver;
 
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import static io.allune.bigquery.maven.service.TableDefinitionLoader.loadExternalTableDefinition;
-import static io.allune.bigquery.maven.service.TableDefinitionLoader.loadStandardTableDefinition;
-import static io.allune.bigquery.maven.service.TableDefinitionLoader.loadViewDefinition;
+import static io.allune.bigquery.maven.service.TableDefinitionLoader.loadViewTemplate;
+import static io.allune.bigquery.maven.service.TableDefinitionLoader.toViewDefinition;
 import static java.lang.Thread.currentThread;
-import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 public class BigQueryServiceImpl implements BigQueryService {
 
+    private static final long LIST_PAGE_SIZE = 1000;
+    private static final int MAX_DELETE_PASSES = 3;
+
     private final BigQuery bigQuery;
     private final String projectId;
     private final String dataset;
     private final Log log;
-
-    private BigQueryServiceImpl(BigQuery bigQuery, String projectId, String dataset, Log log) {
+    private final ParallelExecutor executor;
+    private final ResourceIndex resourceIndex;
+    private final DefinitionCache definitions;
+    private final RequestScheduler scheduler;
+    private final ExecutionMetrics metrics;
+    private final Map<String, String> viewVariables;
+    private final Map<String, String> tableLabels;
+    private final TableSelection managedTables;
+
+    private BigQueryServiceImpl(BigQuery bigQuery, String projectId, String dataset, Log log, int parallelism,
+                                boolean virtualThreads, RequestScheduler scheduler, ExecutionMetrics metrics,
+                                Map<String, String> viewVariables, Map<String, String> tableLabels,
+                                BigQueryServiceImpl definitionsOwner) {
         this.bigQuery = bigQuery;
         this.projectId = projectId;
         this.dataset = dataset;
         this.log = log;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.viewVariables = viewVariables;
+        this.tableLabels = tableLabels;
+        this.managedTables = TableSelection.builder().labels(tableLabels).build();
+        this.executor = new ParallelExecutor(parallelism, virtualThreads);
+        if (definitionsOwner != null) {
+            this.resourceIndex = definitionsOwner.resourceIndex;
+            this.definitions = definitionsOwner.definitions;
+        } else {
+            this.resourceIndex = new ResourceIndex(currentThread().getContextClassLoader());
+            this.definitions = new DefinitionCache();
+        }
     }
 
     public static BigQueryServiceImpl.Builder builder() {
         return new BigQueryServiceImpl.Builder();
     }
 
+    /**
+     * Returns whether the requests can be made from virtual threads, which requires Java 21 or later.
+     */
+    public static boolean supportsVirtualThreads() {
+        return ParallelExecutor.supportsVirtualThreads();
+    }
+
     @Override
     public void createDataset(String dataLocation) {
         DatasetInfo.Builder builder = DatasetInfo.newBuilder(dataset);
         builder.setLocation(dataLocation);
-        bigQuery.create(builder.build());
+        requestCreate("bigquery.createDataset", "create dataset " + dataset, () -> bigQuery.create(builder.build()));
 
         log.info("Dataset created: " + dataset);
     }
 
     @Override
-    public void createNativeTables(List<String> schemaLocations) {
-        List<Resource> resources = loadResources(schemaLocations);
-        resources.forEach(resource -> {
-            TableDefinition tableDefinition = loadStandardTableDefinition(resource);
-            TableInfo tableInfo = createTableInfo(resource.getFilename(), dataset, tableDefinition);
-            bigQuery.create(tableInfo);
+    public boolean datasetExists() {
+        return request("bigquery.getDataset", "get dataset " + dataset, () -> bigQuery.getDataset(dataset)) != null;
+    }
 
-            log.info("Table " + tableInfo.getTableId().getTable() + " created");
-        });
+    /**
+     * Returns the names of the datasets of the project, fetching them page by page.
+     */
+    @Override
+    public List<String> listDatasets() {
+        String operation = "list datasets of " + projectId;
+        Page<Dataset> firstPage = request("bigquery.listDatasets", operation,
+                () -> bigQuery.listDatasets(projectId, DatasetListOption.pageSize(LIST_PAGE_SIZE)));
+        List<String> names = new ArrayList<>();
+        new PageIterator<>(firstPage, page -> request("bigquery.listDatasets", operation, page::getNextPage))
+                .forEachRemaining(existing -> names.add(existing.getDatasetId().getDataset()));
+        return names;
     }
 
     @Override
-    public void createExternalTables(String sourceUri, String formatOptions, List<String> schemaLocations) {
-        List<Resource> resources = loadResources(schemaLocations);
-        resources.forEach(resource -> {
-            TableDefinition tableDefinition = loadExternalTableDefinition(sourceUri, formatOptions, resource);
-            TableInfo tableInfo = createTableInfo(resource.getFilename(), dataset, tableDefinition);
-            bigQuery.create(tableInfo);
+    public void createNativeTables(List<String> schemaLocations) {
+        createTables(loadNativeTables(schemaLocations));
+    }
 
-            log.info("Table " + tableInfo.getTableId().getTable() + " created");
-        });
+    @Override
+    public void createExternalTables(String sourceUri, String formatOptions, List<String> schemaLocations) {
+        createTables(loadExternalTables(sourceUri, formatOptions, schemaLocations));
     }
 
     @Override
     public void createViews(List<String> schemaLocations) {
-        List<Resource> resources = loadResources(schemaLocations);
-        resources.forEach(resource -> {
-            TableDefinition viewDefinition = loadViewDefinition(resource, projectId, dataset);
-            TableInfo tableInfo = createTableInfo(resource.getFilename(), dataset, viewDefinition);
-            bigQuery.create(tableInfo);
+        createViews(loadViews(schemaLocations));
+    }
+
+    /**
+     * Reads the schema and view files into a plan, checking the view dependencies, without making
+     * any request.
+     */
+    @Override
+    public ProvisioningPlan plan(String sourceUri, String formatOptions, List<String> nativeSchemaLocations,
+                                 List<String> externalSchemaLocations, List<String> viewLocations) {
+        Map<String, TableDefinition> nativeTables = loadNativeTableDefinitions(nativeSchemaLocations);
+        Map<String, TableDefinition> externalTables =
+                loadExternalTableDefinitions(sourceUri, formatOptions, externalSchemaLocations);
+        Map<String, ViewTemplate> viewTemplates = loadViewTemplates(viewLocations);
+        toViews(viewTemplates);
+        return new ProvisioningPlan(nativeTables, externalTables, viewTemplates);
+    }
+
+    @Override
+    public void apply(ProvisioningPlan plan) {
+        List<TableInfo> tables = new ArrayList<>(toTableInfos(plan.getNativeTables()));
+        tables.addAll(toTableInfos(plan.getExternalTables()));
+        createTables(tables);
+        createViews(toViews(plan.getViewTemplates()));
+    }
+
+    private void createViews(Views views) {
+        executor.forEach("create views", views.graph, views.tables, tableInfo -> {
+            create(tableInfo);
 
             log.info("View " + tableInfo.getTableId().getTable() + " created");
         });
+        logSchedulerDelays();
+    }
+
+    @Override
+    public void sync(String sourceUri, String formatOptions, List<String> nativeSchemaLocations,
+                     List<String> externalSchemaLocations, List<String> viewLocations, boolean deleteRemoved) {
+        List<TableInfo> tables = new ArrayList<>(loadNativeTables(nativeSchemaLocations));
+        tables.addAll(loadExternalTables(sourceUri, formatOptions, externalSchemaLocations));
+        Views views = loadViews(viewLocations);
+
+        Map<String, Table> remoteTables = listTables();
+        SyncResult result = new SyncResult();
+        executor.forEach("synchronise tables", tables, tableInfo -> tableInfo.getTableId().getTable(),
+                tableInfo -> syncTable(tableInfo, remoteTables.get(tableInfo.getTableId().getTable()), result));
+        executor.forEach("synchronise views", views.graph, views.tables,
+                tableInfo -> syncTable(tableInfo, remoteTables.get(tableInfo.getTableId().getTable()), result));
+
+        if (deleteRemoved) {
+            Set<String> localTables = new HashSet<>(views.tables.keySet());
+            tables.forEach(tableInfo -> localTables.add(tableInfo.getTableId().getTable()));
+            // with table labels, only the tables carrying them have been created by the plugin
+            List<Table> removedTables = remoteTables.values().stream()
+                    .filter(table -> !localTables.contains(table.getTableId().getTable()))
+                    .filter(table -> managedTables.matches(table.getTableId().getTable(), table.getLabels()))
+                    .collect(toList());
+            try (RequestWindow window = executor.openWindow("delete tables")) {
+                removedTables.forEach(table -> deleteAsync(window, table.getTableId()).thenAccept(deleted -> {
+                    if (deleted) {
+                        result.deleted.incrementAndGet();
+
+                        log.info("Table " + table.getTableId().getTable() + " deleted");
+                    }
+                }));
+                window.await();
+            }
+        }
+
+        log.info("Dataset " + dataset + " synchronised: " + result);
+        logSchedulerDelays();
+    }
+
+    /**
+     * Brings the tables and views defined in the given files in line with them and deletes the removed
+     * tables and views carrying the table labels, without listing the dataset. The files are read again
+     * on every call, so that a long-running process can push the files changed since, leaving the other
+     * tables untouched.
+     */
+    @Override
+    public void syncFiles(String sourceUri, String formatOptions, List<String> nativeSchemaFiles,
+                          List<String> externalSchemaFiles, List<String> viewFiles, List<String> removedTables) {
+        List<TableInfo> tables = new ArrayList<>(toTableInfos(loadTableDefinitions(files(nativeSchemaFiles),
+                TableDefinitionLoader::loadStandardTableDefinition)));
+        tables.addAll(toTableInfos(loadTableDefinitions(files(externalSchemaFiles),
+                resource -> loadExternalTableDefinition(sourceUri, formatOptions, resource))));
+        Views views = toViews(readViewTemplates(files(viewFiles)));
+
+        SyncResult result = new SyncResult();
+        executor.forEach("synchronise tables", tables, tableInfo -> tableInfo.getTableId().getTable(),
+                tableInfo -> syncTable(tableInfo, result));
+        executor.forEach("synchronise views", views.graph, views.tables, tableInfo -> syncTable(tableInfo, result));
+        try (RequestWindow window = executor.openWindow("delete tables")) {
+            removedTables.forEach(tableName -> deleteManagedAsync(window, TableId.of(dataset, tableName))
+                    .thenAccept(deleted -> {
+                        if (deleted) {
+                            result.deleted.incrementAndGet();
+
+                            log.info(tableName + " deleted");
+                        }
+                    }));
+            window.await();
+        }
+
+        log.info("Dataset " + dataset + " synchronised: " + result);
+        logSchedulerDelays();
     }
 
     @Override
     public void deleteTables() {
-        Dataset ds = bigQuery.getDataset(dataset);
-        if (ds != null) {
-            log.info("Deleting tables from " + dataset);
-            Page<Table> tablePage;
-            do {
-                tablePage = ds.list();
-                tablePage.getValues().forEach(table -> {
+        deleteTables(TableSelection.all(), 0);
+    }
+
+    /**
+     * Deletes the selected tables one by one, matching them against the listing only. When every
+     * table is selected and there are more than {@code recreateDatasetThreshold} of them, deletes
+     * the dataset with its contents and creates it again with the same metadata instead. Zero means
+     * the tables are always deleted one by one.
+     */
+    @Override
+    public void deleteTables(TableSelection selection, int recreateDatasetThreshold) {
+        checkArgument(recreateDatasetThreshold >= 0, "recreateDatasetThreshold must not be negative");
+        Dataset currentDataset = request("bigquery.getDataset", "get dataset " + dataset,
+                () -> bigQuery.getDataset(dataset));
+        if (currentDataset == null) {
+            return;
+        }
+
+        Predicate<Table> selected = toPredicate(selection);
+        Iterator<Table> firstPass = Iterators.filter(listTablesLazily(), selected::test);
+        if (recreateDatasetThreshold > 0 && selection.isAll()) {
+            List<Table> tables = new ArrayList<>();
+            while (tables.size() <= recreateDatasetThreshold && firstPass.hasNext()) {
+                tables.add(firstPass.next());
+            }
+            if (tables.size() > recreateDatasetThreshold) {
+                recreateDataset(currentDataset, recreateDatasetThreshold);
+                return;
+            }
+            firstPass = tables.iterator();
+        }
+
+        log.info("Deleting " + selection + " from " + dataset);
+        long start = System.nanoTime();
+        // only the tables still there when their deletion is made are counted
+        AtomicInteger deleted = new AtomicInteger();
+        int passes = 0;
+        int pass;
+        do {
+            Iterator<Table> tables = passes == 0 ? firstPass : Iterators.filter(listTablesLazily(), selected::test);
+            try (RequestWindow window = executor.openWindow("delete tables")) {
+                tables.forEachRemaining(table -> {
                     log.info("Deleting table " + table.getTableId().getTable());
-                    table.delete();
+                    deleteAsync(window, table.getTableId()).thenAccept(existed -> {
+                        if (existed) {
+                            deleted.incrementAndGet();
+                        }
+                    });
                 });
-            } while (tablePage.hasNextPage());
+                pass = window.await();
+            }
+            // tables listed after a page token was issued are only seen by a new listing, looked for only
+            // when every table is deleted, as the tables left by a selection would always call for one
+        } while (pass > 0 && ++passes < MAX_DELETE_PASSES && selection.isAll()
+                && request("bigquery.list", "list tables of " + dataset,
+                () -> bigQuery.listTables(dataset, TableListOption.pageSize(1))).getValues().iterator().hasNext());
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info(String.format("Deleted %d tables from %s in %.1f s (%.1f tables/s)", deleted.get(), dataset, seconds,
+                seconds > 0 ? deleted.get() / seconds : 0));
+        logSchedulerDelays();
+    }
+
+    private Predicate<Table> toPredicate(TableSelection selection) {
+        if (selection.getLocations().isEmpty()) {
+            return table -> selection.matches(table.getTableId().getTable(), table.getLabels());
+        }
+        Set<String> names = new HashSet<>();
+        scan(selection.getLocations()).forEach(resource -> names.add(tableName(resource.getFilename())));
+        return table -> names.contains(table.getTableId().getTable())
+                && selection.matches(table.getTableId().getTable(), table.getLabels());
+    }
+
+    /**
+     * Deletes the dataset with all its tables and creates it again with the same location, labels,
+     * default table expiration, description and access entries.
+     */
+    private void recreateDataset(Dataset currentDataset, int recreateDatasetThreshold) {
+        DatasetInfo.Builder builder = DatasetInfo.newBuilder(currentDataset.getDatasetId())
+                .setLocation(currentDataset.getLocation());
+        if (currentDataset.getAcl() != null) {
+            builder.setAcl(currentDataset.getAcl());
+        }
+        if (currentDataset.getDefaultTableLifetime() != null) {
+            builder.setDefaultTableLifetime(currentDataset.getDefaultTableLifetime());
+        }
+        if (currentDataset.getDescription() != null) {
+            builder.setDescription(currentDataset.getDescription());
         }
+        if (currentDataset.getFriendlyName() != null) {
+            builder.setFriendlyName(currentDataset.getFriendlyName());
+        }
+        if (currentDataset.getLabels() != null && !currentDataset.getLabels().isEmpty()) {
+            builder.setLabels(currentDataset.getLabels());
+        }
+        DatasetInfo datasetInfo = builder.build();
+
+        log.info("Dataset " + dataset + " holds more than " + recreateDatasetThreshold
+                + " tables, deleting and recreating it");
+        long start = System.nanoTime();
+        request("bigquery.deleteDataset", "delete dataset " + dataset,
+                () -> bigQuery.delete(dataset, DatasetDeleteOption.deleteContents()));
+        requestCreate("bigquery.createDataset", "recreate dataset " + dataset, () -> bigQuery.create(datasetInfo));
+        log.info(String.format("Recreated %s in %.1f s", dataset, (System.nanoTime() - start) / 1e9));
     }
 
     @Override
@@ -131,36 +379,352 @@ public class BigQueryServiceImpl implements BigQueryService {
         }
 
         log.info("Deleting dataset " + dataset + (forceDelete ? " (forced)" : ""));
-        bigQuery.delete(dataset, deleteOptions.toArray(new DatasetDeleteOption[0]));
-    }
-
-    private static List<Resource> loadResources(List<String> locations) {
-        ClassLoader classLoader = currentThread().getContextClassLoader();
-        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
-
-        SchemaLocations loc = new SchemaLocations(locations);
-        List<Resource> loadedResources = new ArrayList<>();
-        loc.getSchemaLocations().forEach(location -> {
-            try {
-                Resource resource = resolver.getResource(location.getDescriptor());
-                if (resource != null && resource.isReadable()) {
-                    loadedResources.add(resource);
-                } else {
-                    Resource[] resources = resolver.getResources(location.getDescriptor() + "/*");
-                    loadedResources.addAll(asList(resources));
-                }
-            } catch (IOException e) {
-                throw new ConfigurationException(e.getMessage(), e);
+        request("bigquery.deleteDataset", "delete dataset " + dataset,
+                () -> bigQuery.delete(dataset, deleteOptions.toArray(new DatasetDeleteOption[0])));
+    }
+
+    private void createTables(List<TableInfo> tables) {
+        try (RequestWindow window = executor.openWindow("create tables")) {
+            tables.forEach(tableInfo -> createAsync(window, tableInfo).thenRun(() ->
+                    log.info("Table " + tableInfo.getTableId().getTable() + " created")));
+            window.await();
+        }
+        logSchedulerDelays();
+    }
+
+    private List<TableInfo> loadNativeTables(List<String> schemaLocations) {
+        return toTableInfos(loadNativeTableDefinitions(schemaLocations));
+    }
+
+    private List<TableInfo> loadExternalTables(String sourceUri, String formatOptions, List<String> schemaLocations) {
+        return toTableInfos(loadExternalTableDefinitions(sourceUri, formatOptions, schemaLocations));
+    }
+
+    private Map<String, TableDefinition> loadNativeTableDefinitions(List<String> schemaLocations) {
+        return definitions.tables(
+                () -> loadTableDefinitions(scan(schemaLocations), TableDefinitionLoader::loadStandardTableDefinition),
+                "native", schemaLocations);
+    }
+
+    private Map<String, TableDefinition> loadExternalTableDefinitions(String sourceUri, String formatOptions,
+                                                                      List<String> schemaLocations) {
+        return definitions.tables(
+                () -> loadTableDefinitions(scan(schemaLocations),
+                        resource -> loadExternalTableDefinition(sourceUri, formatOptions, resource)),
+                "external", sourceUri, formatOptions, schemaLocations);
+    }
+
+    /**
+     * Returns the files of the locations, each location being scanned once per execution.
+     */
+    private List<Resource> scan(List<String> locations) {
+        return metrics.time("resources.scan", () -> resourceIndex.resources(locations));
+    }
+
+    /**
+     * Returns the given files as they are now, without the scans of the execution.
+     */
+    private List<Resource> files(List<String> files) {
+        return metrics.time("resources.scan", () -> resourceIndex.files(files));
+    }
+
+    private Map<String, TableDefinition> loadTableDefinitions(List<Resource> resources,
+                                                              Function<Resource, TableDefinition> loader) {
+        List<TableDefinition> tableDefinitions;
+        try {
+            tableDefinitions = executor.map("load schemas", resources, Resource::getFilename,
+                    resource -> metrics.time("definitions.parse", () -> loader.apply(resource)));
+        } catch (ProvisioningException e) {
+            // every file has been read, report the problems of all of them at once
+            throw new ConfigurationException(e.getMessage() + e.getFailures().stream()
+                    .map(failure -> System.lineSeparator() + "  " + failure.getMessage())
+                    .collect(joining()), e);
+        }
+        Map<String, TableDefinition> tables = new LinkedHashMap<>();
+        for (int i = 0; i < resources.size(); i++) {
+            String tableName = tableName(resources.get(i).getFilename());
+            if (tables.put(tableName, tableDefinitions.get(i)) != null) {
+                throw new ConfigurationException("Table " + tableName + " is defined more than once");
+            }
+        }
+        return Collections.unmodifiableMap(tables);
+    }
+
+    private List<TableInfo> toTableInfos(Map<String, TableDefinition> tableDefinitions) {
+        return tableDefinitions.entrySet().stream()
+                .map(table -> toTableInfo(table.getKey(), table.getValue()))
+                .collect(toList());
+    }
+
+    private TableInfo toTableInfo(String tableName, TableDefinition definition) {
+        TableInfo.Builder builder = TableInfo.newBuilder(TableId.of(dataset, tableName), definition);
+        if (!tableLabels.isEmpty()) {
+            builder.setLabels(tableLabels);
+        }
+        return builder.build();
+    }
+
+    private Views loadViews(List<String> viewLocations) {
+        return toViews(loadViewTemplates(viewLocations));
+    }
+
+    private Views toViews(Map<String, ViewTemplate> templates) {
+        Map<String, TableInfo> views = new LinkedHashMap<>();
+        Map<String, String> queries = new LinkedHashMap<>();
+        templates.forEach((viewName, template) -> {
+            ViewDefinition viewDefinition = toViewDefinition(template, projectId, dataset);
+            views.put(viewName, toTableInfo(viewName, viewDefinition));
+            queries.put(viewName, viewDefinition.getQuery());
+        });
+        return new Views(views, DependencyGraph.forViews(queries, projectId, dataset));
+    }
+
+    private Map<String, ViewTemplate> loadViewTemplates(List<String> viewLocations) {
+        return definitions.views(() -> readViewTemplates(scan(viewLocations)), "views", viewLocations, viewVariables);
+    }
+
+    private Map<String, ViewTemplate> readViewTemplates(List<Resource> resources) {
+        Map<String, ViewTemplate> templates = new LinkedHashMap<>();
+        resources.forEach(resource -> {
+            String viewName = tableName(resource.getFilename());
+            if (templates.put(viewName, metrics.time("definitions.parse",
+                    () -> loadViewTemplate(viewName, resource, viewVariables))) != null) {
+                throw new ConfigurationException("View " + viewName + " is defined more than once");
+            }
+        });
+        return Collections.unmodifiableMap(templates);
+    }
+
+    private Map<String, Table> listTables() {
+        Map<String, Table> tables = new HashMap<>();
+        listTablesLazily().forEachRemaining(table -> tables.put(table.getTableId().getTable(), table));
+        return tables;
+    }
+
+    /**
+     * Iterates over the tables of the dataset, fetching the next page only once the previous one
+     * has been consumed.
+     */
+    private Iterator<Table> listTablesLazily() {
+        String operation = "list tables of " + dataset;
+        Page<Table> firstPage = request("bigquery.list", operation,
+                () -> bigQuery.listTables(dataset, TableListOption.pageSize(LIST_PAGE_SIZE)));
+        return new PageIterator<>(firstPage, page -> request("bigquery.list", operation, page::getNextPage));
+    }
+
+    private void syncTable(TableInfo tableInfo, Table remoteTable, SyncResult result) {
+        String tableName = tableInfo.getTableId().getTable();
+        if (remoteTable == null) {
+            create(tableInfo);
+            result.created.incrementAndGet();
+            log.info(tableName + " created");
+        } else if (remoteTable.getDefinition().getType() != tableInfo.getDefinition().getType()) {
+            delete(tableInfo.getTableId());
+            create(tableInfo);
+            result.recreated.incrementAndGet();
+            log.info(tableName + " recreated as " + tableInfo.getDefinition().getType());
+        } else {
+            updateTable(tableInfo, getTable(tableInfo.getTableId()), result);
+        }
+    }
+
+    /**
+     * Synchronises the table with the one fetched from the dataset, when it has not been listed.
+     */
+    private void syncTable(TableInfo tableInfo, SyncResult result) {
+        Table currentTable = getTable(tableInfo.getTableId());
+        if (currentTable != null && currentTable.getDefinition().getType() == tableInfo.getDefinition().getType()) {
+            updateTable(tableInfo, currentTable, result);
+        } else {
+            syncTable(tableInfo, currentTable, result);
+        }
+    }
+
+    /**
+     * Updates the table from its definition, the current table being fetched with its schema.
+     */
+    private void updateTable(TableInfo tableInfo, Table currentTable, SyncResult result) {
+        String tableName = tableInfo.getTableId().getTable();
+        if (currentTable == null) {
+            create(tableInfo);
+            result.created.incrementAndGet();
+            log.info(tableName + " created");
+        } else if (TableDefinitions.isEquivalent(tableInfo.getDefinition(), currentTable.getDefinition())) {
+            result.unchanged.incrementAndGet();
+            log.debug(tableName + " is up to date");
+        } else if (tableInfo.getDefinition() instanceof ViewDefinition) {
+            request("bigquery.update", "update " + tableName, () -> bigQuery.update(tableInfo));
+            result.updated.incrementAndGet();
+            log.info(tableName + " updated");
+        } else {
+            evolveTable(tableInfo, currentTable, result);
+        }
+    }
+
+    /**
+     * Updates the table in place if its schema only changed in ways BigQuery can apply without
+     * losing data and its partitioning column did not change. External tables hold no data and are
+     * recreated otherwise, while native tables are left untouched and reported.
+     */
+    private void evolveTable(TableInfo tableInfo, Table currentTable, SyncResult result) {
+        String tableName = tableInfo.getTableId().getTable();
+        SchemaEvolution evolution = SchemaEvolution.of(tableInfo.getDefinition().getSchema(),
+                currentTable.getDefinition().getSchema());
+        List<String> incompatibleChanges = new ArrayList<>(evolution.getIncompatibleChanges());
+        String partitioningChange = TableDefinitions.describePartitioningChange(tableInfo.getDefinition(),
+                currentTable.getDefinition());
+        if (partitioningChange != null) {
+            incompatibleChanges.add(partitioningChange);
+        }
+        if (incompatibleChanges.isEmpty()) {
+            TableInfo evolvedTable = tableInfo.toBuilder()
+                    .setDefinition(tableInfo.getDefinition().toBuilder().setSchema(evolution.getSchema()).build())
+                    .build();
+            request("bigquery.update", "update " + tableName, () -> bigQuery.update(evolvedTable));
+            result.updated.incrementAndGet();
+            log.info(tableName + " updated" + (evolution.getChanges().isEmpty() ? "" : ": " + evolution));
+        } else if (tableInfo.getDefinition().getType() == TableDefinition.Type.EXTERNAL) {
+            delete(tableInfo.getTableId());
+            create(tableInfo);
+            result.recreated.incrementAndGet();
+            log.info(tableName + " recreated: " + evolution);
+        } else {
+            throw new ConfigurationException("Table " + tableName + " cannot be updated without losing its data: "
+                    + String.join(", ", incompatibleChanges));
+        }
+    }
+
+    private Table getTable(TableId tableId) {
+        return request("bigquery.get", "get " + tableId.getTable(), () -> bigQuery.getTable(tableId));
+    }
+
+    private void create(TableInfo tableInfo) {
+        requestCreate("bigquery.create", "create " + tableInfo.getTableId().getTable(),
+                () -> bigQuery.create(tableInfo));
+    }
+
+    private void delete(TableId tableId) {
+        request("bigquery.delete", "delete " + tableId.getTable(), () -> bigQuery.delete(tableId));
+    }
+
+    /**
+     * Submits the creation of the table to the window, waiting only if the window is full.
+     */
+    private CompletableFuture<Table> createAsync(RequestWindow window, TableInfo tableInfo) {
+        String tableName = tableInfo.getTableId().getTable();
+        return window.submit(tableName, () -> requestCreate("bigquery.create", "create " + tableName,
+                () -> bigQuery.create(tableInfo)));
+    }
+
+    /**
+     * Submits the deletion of the table to the window, waiting only if the window is full.
+     */
+    private CompletableFuture<Boolean> deleteAsync(RequestWindow window, TableId tableId) {
+        return window.submit(tableId.getTable(), () -> request("bigquery.delete", "delete " + tableId.getTable(),
+                () -> bigQuery.delete(tableId)));
+    }
+
+    /**
+     * Submits the deletion of the table to the window, unless table labels are set and the table does
+     * not carry them, in which case it has not been created by the plugin and is kept.
+     */
+    private CompletableFuture<Boolean> deleteManagedAsync(RequestWindow window, TableId tableId) {
+        if (tableLabels.isEmpty()) {
+            return deleteAsync(window, tableId);
+        }
+        return window.submit(tableId.getTable(), () -> {
+            Table table = getTable(tableId);
+            if (table == null || !managedTables.matches(tableId.getTable(), table.getLabels())) {
+                log.debug(tableId.getTable() + " is not labelled " + tableLabels + ", kept");
+                return false;
             }
+            return request("bigquery.delete", "delete " + tableId.getTable(), () -> bigQuery.delete(tableId));
         });
+    }
+
+    /**
+     * Makes the request through the scheduler, recording its latency, waits and retries included.
+     */
+    private <T> T request(String phase, String operation, Supplier<T> request) {
+        checkState(bigQuery != null, "No BigQuery client to " + operation);
+        return metrics.time(phase, () -> scheduler.call(operation, request));
+    }
+
+    /**
+     * Makes the create request through the scheduler, a conflict on a retry meaning an earlier attempt
+     * created it.
+     */
+    private <T> T requestCreate(String phase, String operation, Supplier<T> request) {
+        checkState(bigQuery != null, "No BigQuery client to " + operation);
+        return metrics.time(phase, () -> scheduler.create(operation, request));
+    }
+
+    private void logSchedulerDelays() {
+        if (scheduler.getThrottledMillis() > 0 || scheduler.getRetries() > 0) {
+            log.info(String.format("Requests to %s have been delayed %.1f s by rate limiting and %.1f s by %d retries",
+                    dataset, scheduler.getThrottledMillis() / 1e3, scheduler.getBackoffMillis() / 1e3,
+                    scheduler.getRetries()));
+        }
+    }
 
-        return loadedResources;
+    private static String tableName(String filename) {
+        return FilenameUtils.removeExtension(filename);
     }
 
-    private TableInfo createTableInfo(String filename, String dataset, TableDefinition tableDefinition) {
-        String tableName = FilenameUtils.removeExtension(filename);
-        TableId tableId = TableId.of(dataset, tableName);
-        return TableInfo.newBuilder(tableId, tableDefinition).build();
+    private static final class PageIterator<T> implements Iterator<T> {
+
+        private final UnaryOperator<Page<T>> nextPage;
+        private Page<T> page;
+        private Iterator<T> values;
+
+        private PageIterator(Page<T> page, UnaryOperator<Page<T>> nextPage) {
+            this.nextPage = nextPage;
+            this.page = page;
+            this.values = page.getValues().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!values.hasNext() && page.hasNextPage()) {
+                page = nextPage.apply(page);
+                values = page.getValues().iterator();
+            }
+            return values.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return values.next();
+        }
+    }
+
+    private static final class Views {
+
+        private final Map<String, TableInfo> tables;
+        private final DependencyGraph graph;
+
+        private Views(Map<String, TableInfo> tables, DependencyGraph graph) {
+            this.tables = tables;
+            this.graph = graph;
+        }
+    }
+
+    private static final class SyncResult {
+
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger updated = new AtomicInteger();
+        private final AtomicInteger recreated = new AtomicInteger();
+        private final AtomicInteger deleted = new AtomicInteger();
+        private final AtomicInteger unchanged = new AtomicInteger();
+
+        @Override
+        public String toString() {
+            return created + " created, " + updated + " updated, " + recreated + " recreated, "
+                    + deleted + " deleted, " + unchanged + " unchanged";
+        }
     }
 
     public static class Builder {
@@ -170,11 +734,25 @@ public class BigQueryServiceImpl implements BigQueryService {
         private String credentialsFile;
         private String dataset;
         private Log log;
+        private int parallelism = 1;
+        private boolean virtualThreads;
+        private double requestsPerSecond;
+        private int requestBurst = 1;
+        private int maxRetries;
+        private long initialRetryDelay = 1000;
+        private long maxRetryDelay = 32000;
+        private BigQueryServiceImpl definitionsOwner;
+        private ExecutionMetrics metrics;
+        private Map<String, String> viewVariables = Collections.emptyMap();
+        private Map<String, String> tableLabels = Collections.emptyMap();
 
         private Builder() {
             // no op
         }
 
+        /**
+         * Sets the client making the requests. A service without client can only {@link BigQueryServiceImpl#plan plan}.
+         */
         public Builder bigQuery(BigQuery bigQuery) {
             this.bigQuery = bigQuery;
             return this;
@@ -200,14 +778,97 @@ public class BigQueryServiceImpl implements BigQueryService {
             return this;
         }
 
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Makes the requests from virtual threads when the JVM supports them, so that a large
+         * parallelism does not cost as many platform threads. Ignored before Java 21.
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Limits the requests made against the dataset to the given rate, allowing bursts of up to
+         * {@code burst} requests. A rate of zero, the default, means no limit.
+         */
+        public Builder requestRate(double requestsPerSecond, int burst) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.requestBurst = burst;
+            return this;
+        }
+
+        /**
+         * Retries requests failed by rate limits or server errors up to {@code maxRetries} times, waiting
+         * an exponentially growing, jittered delay between {@code initialDelay} and {@code maxDelay}
+         * milliseconds. Requests are not retried by default.
+         */
+        public Builder retries(int maxRetries, long initialDelay, long maxDelay) {
+            this.maxRetries = maxRetries;
+            this.initialRetryDelay = initialDelay;
+            this.maxRetryDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Reuses the schema and view files already read by another service, e.g. one provisioning
+         * another dataset in the same execution, instead of reading them again.
+         */
+        public Builder shareDefinitionsWith(BigQueryServiceImpl service) {
+            this.definitionsOwner = service;
+            return this;
+        }
+
+        /**
+         * Sets the variables substituted in the view queries, besides {@code projectId} and
+         * {@code datasetName}. A query referencing any other variable is rejected.
+         */
+        public Builder viewVariables(Map<String, String> viewVariables) {
+            this.viewVariables = viewVariables;
+            return this;
+        }
+
+        /**
+         * Sets the labels of the tables and views created or updated, so that they can be told apart
+         * from the tables of the dataset the plugin does not manage. None by default.
+         */
+        public Builder tableLabels(Map<String, String> tableLabels) {
+            this.tableLabels = tableLabels;
+            return this;
+        }
+
+        /**
+         * Records the time spent scanning and parsing the definitions and making each kind of request.
+         */
+        public Builder metrics(ExecutionMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
         public BigQueryServiceImpl build() {
-            checkNotNull(bigQuery, "bigQuery is null");
             checkNotNull(projectId, "projectId is null");
             checkNotNull(dataset, "dataset is null");
             checkNotNull(credentialsFile, "credentialsFile is null");
             checkNotNull(log, "log is null");
-
-            return new BigQueryServiceImpl(bigQuery, projectId, dataset, log);
+            checkNotNull(viewVariables, "viewVariables is null");
+            checkNotNull(tableLabels, "tableLabels is null");
+            checkArgument(parallelism > 0, "parallelism must be greater than zero");
+            checkArgument(requestsPerSecond >= 0, "requestsPerSecond must not be negative");
+            checkArgument(requestBurst > 0, "requestBurst must be greater than zero");
+            checkArgument(maxRetries >= 0, "maxRetries must not be negative");
+            checkArgument(initialRetryDelay >= 0 && maxRetryDelay >= initialRetryDelay,
+                    "retry delays must not be negative and the maximum must not be lower than the initial one");
+
+            ExecutionMetrics executionMetrics = metrics != null ? metrics : new ExecutionMetrics();
+            RequestScheduler scheduler = new RequestScheduler(requestsPerSecond, requestBurst, maxRetries,
+                    initialRetryDelay, maxRetryDelay, executionMetrics);
+            return new BigQueryServiceImpl(bigQuery, projectId, dataset, log, parallelism, virtualThreads, scheduler,
+                    executionMetrics, Collections.unmodifiableMap(new HashMap<>(viewVariables)),
+                    Collections.unmodifiableMap(new LinkedHashMap<>(tableLabels)), definitionsOwner);
         }
     }
 }
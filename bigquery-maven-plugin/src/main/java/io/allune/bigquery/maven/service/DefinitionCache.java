@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.cloud.bigquery.TableDefinition;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the table definitions and view templates read from disk, so the services provisioning several
+ * datasets in one execution parse every file once. Entries are keyed by the kind of definition and the
+ * configuration they were read with; a dataset waits for a definition being loaded by another one.
+ */
+final class DefinitionCache {
+
+    private final Map<List<Object>, Map<String, TableDefinition>> tables = new ConcurrentHashMap<>();
+    private final Map<List<Object>, Map<String, ViewTemplate>> views = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the table definitions by table name, loading them the first time they are asked for.
+     */
+    Map<String, TableDefinition> tables(Supplier<Map<String, TableDefinition>> loader, Object... key) {
+        return tables.computeIfAbsent(Arrays.asList(key), k -> loader.get());
+    }
+
+    /**
+     * Returns the view templates by view name, loading them the first time they are asked for.
+     */
+    Map<String, ViewTemplate> views(Supplier<Map<String, ViewTemplate>> loader, Object... key) {
+        return views.computeIfAbsent(Arrays.asList(key), k -> loader.get());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import io.allune.bigquery.maven.ConfigurationException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.regex.Pattern.DOTALL;
+
+/**
+ * Dependencies between the views of a dataset, in the order they can be created.
+ * <br>
+ * A view depends on another when its SQL references it as {@code dataset.view} or
+ * {@code project.dataset.view}, quoted or not. Cycles are rejected when the graph is built.
+ */
+final class DependencyGraph {
+
+    private static final Pattern COMMENTS_AND_LITERALS = Pattern.compile(
+            "--[^\\n]*|#[^\\n]*|/\\*.*?\\*/|'(?:[^'\\\\]|\\\\.)*'|\"(?:[^\"\\\\]|\\\\.)*\"", DOTALL);
+
+    private static final Pattern TABLE_REFERENCE = Pattern.compile(
+            "\\[[^\\]]+\\]|(?:`[^`]+`|[\\w-]+)(?:\\s*\\.\\s*(?:`[^`]+`|[\\w-]+))+|`[^`]+`");
+
+    private final Map<String, Set<String>> dependencies;
+    private final List<String> order;
+
+    private DependencyGraph(Map<String, Set<String>> dependencies) {
+        this.dependencies = dependencies;
+        this.order = sort(dependencies);
+    }
+
+    static DependencyGraph forViews(Map<String, String> queries, String projectId, String dataset) {
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        queries.forEach((view, query) -> {
+            Set<String> viewDependencies = new LinkedHashSet<>();
+            for (List<String> reference : findReferences(query)) {
+                String referenced = reference.get(reference.size() - 1);
+                if (!view.equals(referenced) && queries.containsKey(referenced) && isInDataset(reference, projectId, dataset)) {
+                    viewDependencies.add(referenced);
+                }
+            }
+            dependencies.put(view, viewDependencies);
+        });
+        return new DependencyGraph(dependencies);
+    }
+
+    List<String> getOrder() {
+        return order;
+    }
+
+    Set<String> getDependencies(String name) {
+        return dependencies.getOrDefault(name, Collections.emptySet());
+    }
+
+    static List<List<String>> findReferences(String query) {
+        String code = COMMENTS_AND_LITERALS.matcher(query).replaceAll(" ");
+        List<List<String>> references = new ArrayList<>();
+        Matcher matcher = TABLE_REFERENCE.matcher(code);
+        while (matcher.find()) {
+            List<String> segments = new ArrayList<>();
+            for (String segment : matcher.group().split("[.:]")) {
+                String name = segment.replaceAll("[`\\[\\]\\s]", "");
+                if (!name.isEmpty()) {
+                    segments.add(name);
+                }
+            }
+            if (segments.size() >= 2) {
+                references.add(segments);
+            }
+        }
+        return references;
+    }
+
+    private static boolean isInDataset(List<String> reference, String projectId, String dataset) {
+        int size = reference.size();
+        if (size == 2) {
+            return dataset.equals(reference.get(0));
+        }
+        return size == 3 && dataset.equals(reference.get(1)) && projectId.equals(reference.get(0));
+    }
+
+    private static List<String> sort(Map<String, Set<String>> dependencies) {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependants = new HashMap<>();
+        Deque<String> ready = new ArrayDeque<>();
+        dependencies.forEach((name, nodeDependencies) -> {
+            pending.put(name, nodeDependencies.size());
+            nodeDependencies.forEach(dependency -> dependants.computeIfAbsent(dependency, key -> new ArrayList<>()).add(name));
+            if (nodeDependencies.isEmpty()) {
+                ready.add(name);
+            }
+        });
+
+        List<String> order = new ArrayList<>(dependencies.size());
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            order.add(name);
+            dependants.getOrDefault(name, Collections.emptyList()).forEach(dependant -> {
+                if (pending.merge(dependant, -1, Integer::sum) == 0) {
+                    ready.add(dependant);
+                }
+            });
+        }
+
+        if (order.size() < dependencies.size()) {
+            throw new ConfigurationException("Cyclic view dependencies: "
+                    + String.join(" -> ", findCycle(dependencies, new HashSet<>(order))));
+        }
+        return order;
+    }
+
+    private static List<String> findCycle(Map<String, Set<String>> dependencies, Set<String> sorted) {
+        String current = dependencies.keySet().stream().filter(name -> !sorted.contains(name)).findFirst()
+                .orElseThrow(IllegalStateException::new);
+        List<String> path = new ArrayList<>();
+        while (!path.contains(current)) {
+            path.add(current);
+            current = dependencies.get(current).stream().filter(name -> !sorted.contains(name)).findFirst()
+                    .orElseThrow(IllegalStateException::new);
+        }
+        List<String> cycle = new ArrayList<>(path.subList(path.indexOf(current), path.size()));
+        cycle.add(current);
+        return cycle;
+    }
+}
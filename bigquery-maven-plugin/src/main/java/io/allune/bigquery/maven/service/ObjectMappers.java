@@ -17,32 +17,27 @@
 package io.allune.bigquery.maven.service;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.api.services.bigquery.model.TableFieldSchema;
-import com.google.common.collect.Lists;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 final class ObjectMappers {
 
-    private static ObjectMapper objectMapper;
-
     private ObjectMappers() {
         // no op
     }
 
     static ObjectMapper mapper() {
-        if(objectMapper == null) {
-            objectMapper = createObjectMapper();
-        }
-
-        return objectMapper;
+        return Holder.OBJECT_MAPPER;
     }
 
     private static ObjectMapper createObjectMapper() {
@@ -54,31 +49,71 @@ final class ObjectMappers {
         return objectMapper;
     }
 
+    private static class Holder {
+        private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+    }
+
+    /**
+     * Streams a field definition and its nested fields straight off the parser, so records are read once
+     * however deep they are nested. Attributes other than name, type, mode, description and fields (e.g.
+     * policyTags) are kept as generic values on the field.
+     */
     private static class TableFieldSchemaDeserializer extends JsonDeserializer<TableFieldSchema> {
 
         @Override
         public TableFieldSchema deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
-            JsonNode node = jp.getCodec().readTree(jp);
-            String name = node.get("name").asText();
-            String type = node.get("type").asText();
-            String mode = node.get("mode").asText();
-            List<TableFieldSchema> fields = Lists.newArrayList();
-            JsonNode nestedTableFields = node.get("fields");
-            if (nestedTableFields != null && nestedTableFields.isArray()) {
-                for (JsonNode nestedTableField : nestedTableFields) {
-                    TableFieldSchema embedNode = mapper().readValue(nestedTableField.toString(), TableFieldSchema.class);
-                    fields.add(embedNode);
-                }
+            if (!jp.isExpectedStartObjectToken()) {
+                return (TableFieldSchema) ctxt.handleUnexpectedToken(TableFieldSchema.class, jp);
             }
-
             TableFieldSchema tableFieldSchema = new TableFieldSchema();
-            tableFieldSchema.setName(name);
-            tableFieldSchema.setType(type);
-            tableFieldSchema.setMode(mode);
-            if (!fields.isEmpty()) {
-                tableFieldSchema.setFields(fields);
+            for (String property = jp.nextFieldName(); property != null; property = jp.nextFieldName()) {
+                JsonToken token = jp.nextToken();
+                switch (property) {
+                    case "name":
+                        tableFieldSchema.setName(jp.getValueAsString());
+                        break;
+                    case "type":
+                        tableFieldSchema.setType(jp.getValueAsString());
+                        break;
+                    case "mode":
+                        tableFieldSchema.setMode(jp.getValueAsString());
+                        break;
+                    case "description":
+                        tableFieldSchema.setDescription(jp.getValueAsString());
+                        break;
+                    case "fields":
+                        List<TableFieldSchema> fields = readFields(jp, ctxt, token);
+                        if (!fields.isEmpty()) {
+                            tableFieldSchema.setFields(fields);
+                        }
+                        break;
+                    default:
+                        if (token != JsonToken.VALUE_NULL) {
+                            tableFieldSchema.set(property, jp.readValueAs(Object.class));
+                        }
+                }
+            }
+            if (tableFieldSchema.getName() == null || tableFieldSchema.getType() == null) {
+                return ctxt.reportInputMismatch(TableFieldSchema.class,
+                        "Field definition requires a name and a type: %s", tableFieldSchema);
             }
             return tableFieldSchema;
         }
+
+        private List<TableFieldSchema> readFields(JsonParser jp, DeserializationContext ctxt, JsonToken token) throws IOException {
+            if (token == JsonToken.VALUE_NULL) {
+                return Collections.emptyList();
+            }
+            if (token != JsonToken.START_ARRAY) {
+                @SuppressWarnings("unchecked")
+                List<TableFieldSchema> unexpected = (List<TableFieldSchema>) ctxt.handleUnexpectedToken(List.class, jp);
+                return unexpected;
+            }
+            List<TableFieldSchema> fields = new ArrayList<>();
+            while (jp.nextToken() != JsonToken.END_ARRAY) {
+                fields.add(deserialize(jp, ctxt));
+            }
+            return fields;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import io.allune.bigquery.maven.ProvisioningException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.Thread.currentThread;
+
+/**
+ * Runs an action over a collection of items on a bounded pool of worker threads, virtual ones
+ * if requested and the JVM supports them. Every item is processed even if some of them fail,
+ * and all failures are reported together in a single {@link ProvisioningException}.
+ */
+final class ParallelExecutor {
+
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = virtualThreadFactory();
+
+    private final int parallelism;
+    private final boolean virtualThreads;
+
+    ParallelExecutor(int parallelism) {
+        this(parallelism, false);
+    }
+
+    ParallelExecutor(int parallelism, boolean virtualThreads) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        this.parallelism = parallelism;
+        this.virtualThreads = virtualThreads && VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns whether the workers are virtual threads, which is only the case on Java 21 or later.
+     */
+    boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    static boolean supportsVirtualThreads() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * Opens a window of twice the parallelism for requests submitted one by one.
+     */
+    RequestWindow openWindow(String operation) {
+        return new RequestWindow(operation, newPool(parallelism), parallelism * 2);
+    }
+
+    <T> void forEach(String operation, Collection<T> items, Function<T, String> naming, Consumer<T> action) {
+        map(operation, items, naming, item -> {
+            action.accept(item);
+            return null;
+        });
+    }
+
+    /**
+     * Applies the function to every item and returns the results in the order of the items.
+     */
+    <T, R> List<R> map(String operation, Collection<T> items, Function<T, String> naming, Function<T, R> function) {
+        List<R> results = new ArrayList<>(items.size());
+        List<String> failedItems = new ArrayList<>();
+        List<RuntimeException> failures = new ArrayList<>();
+
+        int threads = Math.min(parallelism, items.size());
+        if (threads <= 1) {
+            items.forEach(item -> {
+                try {
+                    results.add(function.apply(item));
+                } catch (RuntimeException e) {
+                    failedItems.add(naming.apply(item));
+                    failures.add(e);
+                }
+            });
+        } else {
+            ExecutorService executor = newPool(threads);
+            try {
+                List<Future<R>> futures = new ArrayList<>(items.size());
+                items.forEach(item -> futures.add(executor.submit(() -> function.apply(item))));
+
+                int index = 0;
+                for (T item : items) {
+                    try {
+                        results.add(futures.get(index++).get());
+                    } catch (ExecutionException e) {
+                        failedItems.add(naming.apply(item));
+                        failures.add(unwrap(e));
+                    }
+                }
+            } catch (InterruptedException e) {
+                currentThread().interrupt();
+                throw new ProvisioningException("Interrupted while waiting to " + operation, failures);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new ProvisioningException("Failed to " + operation + ": " + failures.size() + " of " + items.size()
+                    + " failed (" + String.join(", ", failedItems) + ")", failures);
+        }
+        return results;
+    }
+
+    /**
+     * Runs the action for every item of the graph as soon as all the items it depends on
+     * have been processed. Items whose dependencies failed are skipped.
+     */
+    <T> void forEach(String operation, DependencyGraph graph, Map<String, T> items, Consumer<T> action) {
+        Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+
+        int threads = Math.min(parallelism, items.size());
+        ExecutorService pool = threads > 1 ? newPool(threads) : null;
+        Executor executor = pool != null ? pool : Runnable::run;
+        try {
+            for (String name : graph.getOrder()) {
+                CompletableFuture<?>[] dependencies = graph.getDependencies(name).stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+                futures.put(name, CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                    try {
+                        action.accept(items.get(name));
+                    } catch (RuntimeException e) {
+                        failures.put(name, e);
+                        throw e;
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).exceptionally(e -> null).get();
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            throw new ProvisioningException("Interrupted while waiting to " + operation, new ArrayList<>(failures.values()));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            List<String> failedItems = new ArrayList<>();
+            List<String> skippedItems = new ArrayList<>();
+            List<RuntimeException> causes = new ArrayList<>();
+            graph.getOrder().forEach(name -> {
+                if (failures.containsKey(name)) {
+                    failedItems.add(name);
+                    causes.add(failures.get(name));
+                } else if (futures.get(name).isCompletedExceptionally()) {
+                    skippedItems.add(name);
+                }
+            });
+            throw new ProvisioningException("Failed to " + operation + ": " + failedItems.size() + " of " + items.size()
+                    + " failed (" + String.join(", ", failedItems) + ")"
+                    + (skippedItems.isEmpty() ? "" : ", " + skippedItems.size() + " skipped because a dependency failed ("
+                    + String.join(", ", skippedItems) + ")"), causes);
+        }
+    }
+
+    private ExecutorService newPool(int threads) {
+        return Executors.newFixedThreadPool(threads, virtualThreads ? VIRTUAL_THREAD_FACTORY : new WorkerThreadFactory());
+    }
+
+    /**
+     * Returns a factory of virtual threads, looked up reflectively as they only exist from Java 21,
+     * or {@code null} if the JVM does not support them.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "bigquery-worker-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+        private final ClassLoader classLoader = currentThread().getContextClassLoader();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bigquery-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }
+    }
+}
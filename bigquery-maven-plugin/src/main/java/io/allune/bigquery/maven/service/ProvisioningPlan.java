@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.google.api.services.bigquery.model.TableFieldSchema;
+import com.google.cloud.bigquery.ExternalTableDefinition;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FormatOptions;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TimePartitioning;
+import io.allune.bigquery.maven.ConfigurationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static io.allune.bigquery.maven.service.ObjectMappers.mapper;
+
+/**
+ * The tables and views to provision, with every location resolved, every schema parsed and every
+ * view query compiled, so that they can be created without reading the schema and view files again.
+ * View variables are substituted when planning, except the project and dataset, which are substituted
+ * for the dataset the views are created in.
+ * <br>
+ * A plan is written as JSON, the tables in the format of the schema files, along with the version of
+ * the plugin that wrote it: only the same version applies it.
+ */
+public final class ProvisioningPlan {
+
+    private final Map<String, TableDefinition> nativeTables;
+    private final Map<String, TableDefinition> externalTables;
+    private final Map<String, ViewTemplate> viewTemplates;
+
+    ProvisioningPlan(Map<String, TableDefinition> nativeTables, Map<String, TableDefinition> externalTables,
+                     Map<String, ViewTemplate> viewTemplates) {
+        this.nativeTables = Collections.unmodifiableMap(new LinkedHashMap<>(nativeTables));
+        this.externalTables = Collections.unmodifiableMap(new LinkedHashMap<>(externalTables));
+        this.viewTemplates = Collections.unmodifiableMap(new LinkedHashMap<>(viewTemplates));
+    }
+
+    public Map<String, TableDefinition> getNativeTables() {
+        return nativeTables;
+    }
+
+    public Map<String, TableDefinition> getExternalTables() {
+        return externalTables;
+    }
+
+    Map<String, ViewTemplate> getViewTemplates() {
+        return viewTemplates;
+    }
+
+    public void writeTo(File file, String pluginVersion) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null) {
+            Files.createDirectories(directory.toPath());
+        }
+        ObjectNode plan = mapper().createObjectNode().put("pluginVersion", pluginVersion);
+        ObjectNode nativeTablesNode = plan.putObject("nativeTables");
+        nativeTables.forEach((tableName, definition) -> nativeTablesNode.set(tableName, toJson(definition)));
+        ObjectNode externalTablesNode = plan.putObject("externalTables");
+        externalTables.forEach((tableName, definition) -> externalTablesNode.set(tableName, toJson(definition)));
+        ObjectNode viewsNode = plan.putObject("views");
+        viewTemplates.forEach((viewName, template) -> viewsNode.put(viewName, template.getSource()));
+        mapper().writerWithDefaultPrettyPrinter().writeValue(file, plan);
+    }
+
+    /**
+     * Reads the plan written by the given version of the plugin.
+     *
+     * @throws ConfigurationException if the plan cannot be read or has been written by another version
+     */
+    public static ProvisioningPlan readFrom(File file, String pluginVersion) {
+        JsonNode plan;
+        try {
+            plan = mapper().readTree(file);
+        } catch (IOException e) {
+            throw new ConfigurationException("Unable to read plan " + file + ": " + e.getMessage(), e);
+        }
+        String planVersion = plan.path("pluginVersion").asText(null);
+        if (!Objects.equals(planVersion, pluginVersion)) {
+            throw new ConfigurationException("Plan " + file + " was written by version " + planVersion
+                    + " of the plugin, not " + pluginVersion + ", plan it again");
+        }
+        try {
+            return new ProvisioningPlan(
+                    read(plan.path("nativeTables"), (tableName, table) -> toStandardTableDefinition(table)),
+                    read(plan.path("externalTables"), (tableName, table) -> toExternalTableDefinition(table)),
+                    read(plan.path("views"),
+                            (viewName, view) -> ViewTemplate.compile(viewName, view.asText(), Collections.emptyMap())));
+        } catch (IOException | RuntimeException e) {
+            throw new ConfigurationException("Unable to read plan " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static ObjectNode toJson(TableDefinition definition) {
+        ObjectNode table = mapper().createObjectNode();
+        if (definition instanceof ExternalTableDefinition) {
+            ExternalTableDefinition externalDefinition = (ExternalTableDefinition) definition;
+            externalDefinition.getSourceUris().forEach(table.putArray("sourceUris")::add);
+            table.put("formatOptions", externalDefinition.getFormatOptions().getType());
+        }
+        addFields(table.putArray("fields"), definition.getSchema().getFields());
+        if (definition instanceof StandardTableDefinition
+                && ((StandardTableDefinition) definition).getTimePartitioning() != null) {
+            TimePartitioning partitioning = ((StandardTableDefinition) definition).getTimePartitioning();
+            ObjectNode partitioningNode = table.putObject("timePartitioning").put("type", partitioning.getType().name());
+            if (partitioning.getField() != null) {
+                partitioningNode.put("field", partitioning.getField());
+            }
+            if (partitioning.getExpirationMs() != null) {
+                partitioningNode.put("expirationMs", partitioning.getExpirationMs());
+            }
+            if (partitioning.getRequirePartitionFilter() != null) {
+                partitioningNode.put("requirePartitionFilter", partitioning.getRequirePartitionFilter());
+            }
+        }
+        return table;
+    }
+
+    private static void addFields(ArrayNode fieldsNode, FieldList fields) {
+        for (Field field : fields) {
+            ObjectNode fieldNode = fieldsNode.addObject()
+                    .put("name", field.getName())
+                    .put("type", field.getType().name());
+            if (field.getMode() != null) {
+                fieldNode.put("mode", field.getMode().name());
+            }
+            if (field.getDescription() != null) {
+                fieldNode.put("description", field.getDescription());
+            }
+            if (field.getSubFields() != null) {
+                addFields(fieldNode.putArray("fields"), field.getSubFields());
+            }
+        }
+    }
+
+    private static TableDefinition toStandardTableDefinition(JsonNode table) throws IOException {
+        StandardTableDefinition.Builder definition = StandardTableDefinition.newBuilder().setSchema(toSchema(table));
+        if (table.hasNonNull("timePartitioning")) {
+            definition.setTimePartitioning(mapper().treeToValue(table.get("timePartitioning"),
+                    SchemaFile.Partitioning.class).toTimePartitioning());
+        }
+        return definition.build();
+    }
+
+    private static TableDefinition toExternalTableDefinition(JsonNode table) throws IOException {
+        List<String> sourceUris = new ArrayList<>();
+        table.path("sourceUris").forEach(sourceUri -> sourceUris.add(sourceUri.asText()));
+        return ExternalTableDefinition.of(sourceUris, toSchema(table),
+                FormatOptions.of(table.path("formatOptions").asText()));
+    }
+
+    private static com.google.cloud.bigquery.Schema toSchema(JsonNode table) throws IOException {
+        CollectionType type = mapper().getTypeFactory().constructCollectionType(List.class, TableFieldSchema.class);
+        List<TableFieldSchema> fields = mapper().readerFor(type).readValue(table.path("fields"));
+        return TableDefinitionLoader.toSchema(fields);
+    }
+
+    private static <T> Map<String, T> read(JsonNode node, JsonFunction<T> reader) throws IOException {
+        Map<String, T> values = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> entries = node.fields(); entries.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            values.put(entry.getKey(), reader.apply(entry.getKey(), entry.getValue()));
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return nativeTables.size() + " native tables, " + externalTables.size() + " external tables, "
+                + viewTemplates.size() + " views";
+    }
+
+    @FunctionalInterface
+    private interface JsonFunction<T> {
+        T apply(String name, JsonNode node) throws IOException;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.common.collect.ImmutableSet;
+import io.allune.bigquery.maven.metrics.ExecutionMetrics;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.lang.Thread.currentThread;
+
+/**
+ * Paces the requests made against a dataset with a token bucket and retries the ones rejected by rate
+ * limits or failed by server errors, with exponential backoff and jitter. The time spent waiting for
+ * tokens and backing off is recorded, so the delay added by the scheduler can be reported.
+ * <br>
+ * The scheduler is the only one to retry: the client is built without retries of its own.
+ */
+final class RequestScheduler {
+
+    private static final Set<Integer> RETRYABLE_CODES = ImmutableSet.of(429, 500, 502, 503, 504);
+    private static final Set<String> RETRYABLE_REASONS =
+            ImmutableSet.of("rateLimitExceeded", "backendError", "internalError");
+    private static final int CONFLICT = 409;
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private final int maxRetries;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Ticker ticker;
+    private final ExecutionMetrics metrics;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    private final AtomicLong throttledNanos = new AtomicLong();
+    private final AtomicLong backoffNanos = new AtomicLong();
+    private final AtomicInteger retries = new AtomicInteger();
+
+    /**
+     * @param permitsPerSecond the sustained request rate, or zero for no limit
+     * @param burst            the number of requests that may be made at once after a quiet period
+     * @param maxRetries       the number of times a failed request is retried
+     * @param initialBackoff   the delay before the first retry, in milliseconds; doubled on every retry
+     * @param maxBackoff       the maximum delay between retries, in milliseconds
+     * @param metrics          the metrics recording every wait, as the {@code scheduler.throttle} and
+     *                         {@code scheduler.backoff} phases
+     */
+    RequestScheduler(double permitsPerSecond, int burst, int maxRetries, long initialBackoff, long maxBackoff,
+                     ExecutionMetrics metrics) {
+        this(permitsPerSecond, burst, maxRetries, initialBackoff, maxBackoff, Ticker.SYSTEM, metrics);
+    }
+
+    RequestScheduler(double permitsPerSecond, int burst, int maxRetries, long initialBackoff, long maxBackoff,
+                     Ticker ticker) {
+        this(permitsPerSecond, burst, maxRetries, initialBackoff, maxBackoff, ticker, new ExecutionMetrics());
+    }
+
+    private RequestScheduler(double permitsPerSecond, int burst, int maxRetries, long initialBackoff, long maxBackoff,
+                             Ticker ticker, ExecutionMetrics metrics) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(burst, 1);
+        this.maxRetries = maxRetries;
+        this.initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(initialBackoff);
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(maxBackoff);
+        this.ticker = ticker;
+        this.metrics = metrics;
+        this.tokens = this.burst;
+        this.lastRefillNanos = ticker.nanoTime();
+    }
+
+    /**
+     * Makes the request once a token is available, retrying it while it fails with a retryable error.
+     */
+    <T> T call(String operation, Supplier<T> request) {
+        return call(operation, request, false);
+    }
+
+    /**
+     * Makes a create request as {@link #call(String, Supplier)} does, except that a conflict on a retry
+     * means an earlier attempt created the resource before failing: null is returned instead of failing.
+     */
+    <T> T create(String operation, Supplier<T> request) {
+        return call(operation, request, true);
+    }
+
+    private <T> T call(String operation, Supplier<T> request, boolean create) {
+        for (int attempt = 0; ; attempt++) {
+            sleep(operation, reserve(), throttledNanos, "scheduler.throttle");
+            try {
+                return request.get();
+            } catch (BigQueryException e) {
+                if (create && attempt > 0 && e.getCode() == CONFLICT) {
+                    return null;
+                }
+                if (attempt >= maxRetries || !isRetryable(e)) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                sleep(operation, backoff(attempt), backoffNanos, "scheduler.backoff");
+            }
+        }
+    }
+
+    long getThrottledMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(throttledNanos.get());
+    }
+
+    long getBackoffMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(backoffNanos.get());
+    }
+
+    int getRetries() {
+        return retries.get();
+    }
+
+    static boolean isRetryable(BigQueryException e) {
+        return RETRYABLE_CODES.contains(e.getCode()) || RETRYABLE_REASONS.contains(e.getReason());
+    }
+
+    /**
+     * Takes a token from the bucket and returns how long the caller must wait before using it. Tokens
+     * may be borrowed ahead, so concurrent callers queue up at the configured rate.
+     */
+    private synchronized long reserve() {
+        if (permitsPerSecond <= 0) {
+            return 0;
+        }
+        long now = ticker.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Returns a delay between half and all of the exponential backoff for the attempt.
+     */
+    private long backoff(int attempt) {
+        long backoff = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt, 30));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private void sleep(String operation, long nanos, AtomicLong total, String phase) {
+        if (nanos <= 0) {
+            return;
+        }
+        total.addAndGet(nanos);
+        metrics.record(phase, nanos);
+        try {
+            ticker.sleep(nanos);
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            throw new BigQueryException(BigQueryException.UNKNOWN_CODE, "Interrupted while waiting to " + operation, e);
+        }
+    }
+
+    /**
+     * The time source of the scheduler.
+     */
+    interface Ticker {
+
+        Ticker SYSTEM = new Ticker() {
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public void sleep(long nanos) throws InterruptedException {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            }
+        };
+
+        long nanoTime();
+
+        void sleep(long nanos) throws InterruptedException;
+    }
+}
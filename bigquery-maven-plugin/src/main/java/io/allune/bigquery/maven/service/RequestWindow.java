@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import io.allune.bigquery.maven.ProvisioningException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.lang.Thread.currentThread;
+
+/**
+ * Runs requests asynchronously with at most a fixed number of them submitted and not yet completed.
+ * Submitting blocks while the window is full, so callers can submit any number of requests without
+ * holding more than the window in memory. Failures are collected and reported together by
+ * {@link #await()}, in the order the requests were submitted; the futures returned by {@link #submit}
+ * complete once the request completes.
+ */
+final class RequestWindow implements AutoCloseable {
+
+    private final String operation;
+    private final ExecutorService executor;
+    private final int size;
+    private final Semaphore inFlight;
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final SortedMap<Integer, String> failedItems = new TreeMap<>();
+    private final SortedMap<Integer, RuntimeException> failures = new TreeMap<>();
+    private final AtomicReference<Error> error = new AtomicReference<>();
+
+    RequestWindow(String operation, ExecutorService executor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be greater than zero");
+        }
+        this.operation = operation;
+        this.executor = executor;
+        this.size = size;
+        this.inFlight = new Semaphore(size);
+    }
+
+    /**
+     * Submits the request, waiting first for a place in the window if it is full.
+     *
+     * @param name the name of the item the request is made for, reported if it fails
+     * @throws ProvisioningException if interrupted while waiting
+     * @throws Error                 if a request previously submitted failed with an error
+     */
+    <T> CompletableFuture<T> submit(String name, Supplier<T> request) {
+        if (error.get() != null) {
+            throw error.get();
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            throw new ProvisioningException("Interrupted while waiting to " + operation, failures());
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        int index = submitted.getAndIncrement();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(request.get());
+                } catch (RuntimeException e) {
+                    synchronized (failures) {
+                        failedItems.put(index, name);
+                        failures.put(index, e);
+                    }
+                    future.completeExceptionally(e);
+                } catch (Error e) {
+                    error.compareAndSet(null, e);
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            submitted.decrementAndGet();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Waits for every submitted request to complete. Returns the number of requests submitted.
+     *
+     * @throws ProvisioningException if any request failed, with the first one submitted as cause and
+     *                               the others suppressed
+     */
+    int await() {
+        try {
+            inFlight.acquire(size);
+            inFlight.release(size);
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            throw new ProvisioningException("Interrupted while waiting to " + operation, failures());
+        }
+
+        if (error.get() != null) {
+            throw error.get();
+        }
+        int count = submitted.get();
+        synchronized (failures) {
+            if (!failures.isEmpty()) {
+                throw new ProvisioningException("Failed to " + operation + ": " + failures.size() + " of " + count
+                        + " failed (" + String.join(", ", failedItems.values()) + ")", failures());
+            }
+        }
+        return count;
+    }
+
+    private List<RuntimeException> failures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures.values());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import io.allune.bigquery.maven.ConfigurationException;
+import io.allune.bigquery.maven.config.SchemaLocation;
+import io.allune.bigquery.maven.config.SchemaLocations;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Resolves schema and view locations to the files they contain, scanning each location once per
+ * execution. A location is either a single file, a directory whose files are read recursively, or an
+ * Ant-style pattern such as {@code classpath:schemas/&#42;&#42;/&#42;.json}. File system locations are
+ * walked directly; class path locations go through a single {@link ResourcePatternResolver}.
+ */
+class ResourceIndex {
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final ResourcePatternResolver resolver;
+    private final Map<SchemaLocation, List<Resource>> resources = new ConcurrentHashMap<>();
+
+    ResourceIndex(ClassLoader classLoader) {
+        this.resolver = new PathMatchingResourcePatternResolver(classLoader);
+    }
+
+    /**
+     * Returns the files of the given locations, each file once, in location order and sorted by path
+     * within a location.
+     */
+    List<Resource> resources(List<String> locations) {
+        Set<Resource> loadedResources = new LinkedHashSet<>();
+        new SchemaLocations(locations).getSchemaLocations()
+                .forEach(location -> loadedResources.addAll(resources.computeIfAbsent(location, this::scan)));
+        return new ArrayList<>(loadedResources);
+    }
+
+    /**
+     * Returns the given files that can be read, resolved again on every call rather than taken from
+     * the scanned locations, as a long-running process sees the same files change and go.
+     */
+    List<Resource> files(List<String> locations) {
+        return new SchemaLocations(locations).getSchemaLocations().stream()
+                .map(location -> location.isClassPath()
+                        ? resolver.getResource(location.getDescriptor())
+                        : new FileSystemResource(location.getPath()))
+                .filter(Resource::isReadable)
+                .distinct()
+                .collect(toList());
+    }
+
+    private List<Resource> scan(SchemaLocation location) {
+        try {
+            return location.isClassPath() ? scanClassPath(location) : scanFileSystem(location);
+        } catch (IOException | UncheckedIOException e) {
+            throw new ConfigurationException(e.getMessage(), e);
+        }
+    }
+
+    private List<Resource> scanClassPath(SchemaLocation location) throws IOException {
+        String descriptor = location.getDescriptor();
+        if (!PATH_MATCHER.isPattern(location.getPath())) {
+            Resource resource = resolver.getResource(descriptor);
+            if (resource.isReadable()) {
+                return Collections.singletonList(resource);
+            }
+            descriptor += "/**/*";
+        }
+        return Stream.of(resolver.getResources(descriptor))
+                .filter(Resource::isReadable)
+                .sorted((a, b) -> a.getDescription().compareTo(b.getDescription()))
+                .collect(toList());
+    }
+
+    private List<Resource> scanFileSystem(SchemaLocation location) throws IOException {
+        String path = location.getPath();
+        String pattern = null;
+        if (PATH_MATCHER.isPattern(path)) {
+            int wildcard = firstWildcard(path);
+            int rootEnd = path.lastIndexOf('/', wildcard);
+            pattern = path.substring(rootEnd + 1);
+            path = rootEnd < 0 ? "." : path.substring(0, rootEnd + 1);
+        }
+        Path root = Paths.get(path);
+        if (Files.isRegularFile(root) && pattern == null) {
+            return Collections.singletonList(new FileSystemResource(root.toFile()));
+        }
+        if (!Files.isDirectory(root)) {
+            return Collections.emptyList();
+        }
+        String filePattern = pattern;
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> filePattern == null
+                            || PATH_MATCHER.match(filePattern, root.relativize(file).toString().replace('\\', '/')))
+                    .sorted()
+                    .map(file -> new FileSystemResource(file.toFile()))
+                    .collect(toList());
+        }
+    }
+
+    private static int firstWildcard(String path) {
+        int index = path.length();
+        for (char wildcard : new char[]{'*', '?', '{'}) {
+            int position = path.indexOf(wildcard);
+            if (position >= 0 && position < index) {
+                index = position;
+            }
+        }
+        return index;
+    }
+}
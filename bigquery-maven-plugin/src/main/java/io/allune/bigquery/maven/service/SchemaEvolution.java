@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.allune.bigquery.maven.service.TableDefinitions.normalizeMode;
+import static io.allune.bigquery.maven.service.TableDefinitions.normalizeType;
+
+/**
+ * The changes turning the schema of an existing table into the one defined locally. BigQuery only
+ * updates a table in place, keeping its data, if the changes are additive: new nullable or repeated
+ * fields, at the top level or in records, required fields relaxed to nullable and new descriptions.
+ * Removed fields, type changes and any other mode change are incompatible.
+ */
+final class SchemaEvolution {
+
+    private final Schema schema;
+    private final List<String> changes;
+    private final List<String> incompatibleChanges;
+
+    private SchemaEvolution(Schema schema, List<String> changes, List<String> incompatibleChanges) {
+        this.schema = schema;
+        this.changes = Collections.unmodifiableList(changes);
+        this.incompatibleChanges = Collections.unmodifiableList(incompatibleChanges);
+    }
+
+    /**
+     * Compares the local schema with the remote one, field by field and record by record.
+     */
+    static SchemaEvolution of(Schema local, Schema remote) {
+        List<String> changes = new ArrayList<>();
+        List<String> incompatibleChanges = new ArrayList<>();
+        FieldList localFields = local != null ? local.getFields() : null;
+        FieldList remoteFields = remote != null ? remote.getFields() : null;
+        List<Field> fields = evolve("", localFields, remoteFields, changes, incompatibleChanges);
+        return new SchemaEvolution(Schema.of(fields), changes, incompatibleChanges);
+    }
+
+    /**
+     * Returns the schema to update the table with: the remote fields in their order, with the local
+     * modes and descriptions, followed by the new fields.
+     */
+    Schema getSchema() {
+        return schema;
+    }
+
+    List<String> getChanges() {
+        return changes;
+    }
+
+    List<String> getIncompatibleChanges() {
+        return incompatibleChanges;
+    }
+
+    boolean isCompatible() {
+        return incompatibleChanges.isEmpty();
+    }
+
+    private static List<Field> evolve(String path, FieldList localFields, FieldList remoteFields, List<String> changes,
+                                      List<String> incompatibleChanges) {
+        Map<String, Field> local = index(localFields);
+        List<Field> fields = new ArrayList<>();
+        if (remoteFields != null) {
+            for (Field remoteField : remoteFields) {
+                Field localField = local.remove(remoteField.getName());
+                if (localField == null) {
+                    incompatibleChanges.add(path + remoteField.getName() + " removed");
+                    fields.add(remoteField);
+                } else {
+                    fields.add(evolve(path, localField, remoteField, changes, incompatibleChanges));
+                }
+            }
+        }
+        for (Field localField : local.values()) {
+            if (normalizeMode(localField.getMode()) == Field.Mode.REQUIRED) {
+                incompatibleChanges.add(path + localField.getName() + " added as REQUIRED");
+            } else {
+                changes.add(path + localField.getName() + " added");
+            }
+            fields.add(localField);
+        }
+        return fields;
+    }
+
+    private static Field evolve(String path, Field localField, Field remoteField, List<String> changes,
+                                List<String> incompatibleChanges) {
+        String name = path + localField.getName();
+        String localType = normalizeType(localField.getType());
+        String remoteType = normalizeType(remoteField.getType());
+        Field.Mode localMode = normalizeMode(localField.getMode());
+        Field.Mode remoteMode = normalizeMode(remoteField.getMode());
+        if (!localType.equals(remoteType)) {
+            incompatibleChanges.add(name + " changed from " + remoteType + " to " + localType);
+            return remoteField;
+        }
+        if (localMode != remoteMode) {
+            if (remoteMode == Field.Mode.REQUIRED && localMode == Field.Mode.NULLABLE) {
+                changes.add(name + " relaxed to NULLABLE");
+            } else {
+                incompatibleChanges.add(name + " changed from " + remoteMode + " to " + localMode);
+            }
+        }
+        if (localField.getDescription() != null && !localField.getDescription().equals(remoteField.getDescription())) {
+            changes.add(name + " described");
+        }
+
+        Field.Builder field = remoteField.toBuilder().setMode(localMode);
+        if (localField.getDescription() != null) {
+            field.setDescription(localField.getDescription());
+        }
+        if (LegacySQLTypeName.RECORD.name().equals(localType)) {
+            List<Field> subFields = evolve(name + ".", localField.getSubFields(), remoteField.getSubFields(), changes,
+                    incompatibleChanges);
+            field.setType(remoteField.getType(), FieldList.of(subFields));
+        }
+        return field.build();
+    }
+
+    private static Map<String, Field> index(FieldList fields) {
+        Map<String, Field> index = new LinkedHashMap<>();
+        if (fields != null) {
+            fields.forEach(field -> index.put(field.getName(), field));
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        List<String> all = new ArrayList<>(changes);
+        all.addAll(incompatibleChanges);
+        return String.join(", ", all);
+    }
+}
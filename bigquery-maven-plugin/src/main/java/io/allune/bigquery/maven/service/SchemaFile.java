@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.api.services.bigquery.model.TableFieldSchema;
+import com.google.cloud.bigquery.TimePartitioning;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The content of a schema file: either the array of the fields of the table, as written by {@code bq},
+ * or an object holding the {@code fields} of the table along with its {@code timePartitioning}, named
+ * as in the table resource of the BigQuery API.
+ */
+final class SchemaFile {
+
+    private List<TableFieldSchema> fields;
+    private Partitioning timePartitioning;
+    private Object rangePartitioning;
+    private Object clustering;
+
+    private SchemaFile() {
+        // read by Jackson
+    }
+
+    static SchemaFile of(List<TableFieldSchema> fields) {
+        SchemaFile schemaFile = new SchemaFile();
+        schemaFile.fields = fields;
+        return schemaFile;
+    }
+
+    List<TableFieldSchema> getFields() {
+        return fields != null ? fields : Collections.emptyList();
+    }
+
+    Partitioning getTimePartitioning() {
+        return timePartitioning;
+    }
+
+    boolean hasRangePartitioning() {
+        return rangePartitioning != null;
+    }
+
+    boolean hasClustering() {
+        return clustering != null;
+    }
+
+    private void setFields(List<TableFieldSchema> fields) {
+        this.fields = fields;
+    }
+
+    private void setTimePartitioning(Partitioning timePartitioning) {
+        this.timePartitioning = timePartitioning;
+    }
+
+    private void setRangePartitioning(Object rangePartitioning) {
+        this.rangePartitioning = rangePartitioning;
+    }
+
+    private void setClustering(Object clustering) {
+        this.clustering = clustering;
+    }
+
+    /**
+     * The time partitioning of the table: by the {@code field} column, or by ingestion time if no
+     * field is given, with the {@code expirationMs} of its partitions and whether queries must filter
+     * on the partitions.
+     */
+    static final class Partitioning {
+
+        private String type = TimePartitioning.Type.DAY.name();
+        private String field;
+        private Long expirationMs;
+        private Boolean requirePartitionFilter;
+
+        private Partitioning() {
+            // read by Jackson
+        }
+
+        String getType() {
+            return type;
+        }
+
+        String getField() {
+            return field;
+        }
+
+        Long getExpirationMs() {
+            return expirationMs;
+        }
+
+        TimePartitioning toTimePartitioning() {
+            return TimePartitioning.newBuilder(TimePartitioning.Type.valueOf(type))
+                    .setField(field)
+                    .setExpirationMs(expirationMs)
+                    .setRequirePartitionFilter(requirePartitionFilter)
+                    .build();
+        }
+
+        private void setType(String type) {
+            this.type = type;
+        }
+
+        private void setField(String field) {
+            this.field = field;
+        }
+
+        private void setExpirationMs(Long expirationMs) {
+            this.expirationMs = expirationMs;
+        }
+
+        private void setRequirePartitionFilter(Boolean requirePartitionFilter) {
+            this.requirePartitionFilter = requirePartitionFilter;
+        }
+    }
+}
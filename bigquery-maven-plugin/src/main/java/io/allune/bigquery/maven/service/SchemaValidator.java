@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.api.services.bigquery.model.TableFieldSchema;
+import com.google.cloud.bigquery.TimePartitioning;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Checks parsed field definitions, and the partitioning of the table, against the rules BigQuery
+ * applies when creating a table, so that every problem of a schema is reported at once, before any
+ * request is made.
+ */
+final class SchemaValidator {
+
+    static final int MAX_COLUMNS = 10000;
+    static final int MAX_NESTING_DEPTH = 15;
+    static final int MAX_NAME_LENGTH = 300;
+    static final int MAX_DESCRIPTION_LENGTH = 1024;
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Set<String> TYPES = ImmutableSet.of("STRING", "BYTES", "INTEGER", "INT64", "FLOAT",
+            "FLOAT64", "NUMERIC", "BIGNUMERIC", "BOOLEAN", "BOOL", "TIMESTAMP", "DATE", "TIME", "DATETIME",
+            "GEOGRAPHY", "JSON", "INTERVAL", "RECORD", "STRUCT");
+    private static final Set<String> RECORD_TYPES = ImmutableSet.of("RECORD", "STRUCT");
+    private static final Set<String> MODES = ImmutableSet.of("NULLABLE", "REQUIRED", "REPEATED");
+    private static final Set<String> PARTITIONING_TYPES = ImmutableSet.of("DATE", "TIMESTAMP", "DATETIME");
+    private static final List<String> RESERVED_PREFIXES = ImmutableList.of("_TABLE_", "_FILE_", "_PARTITION",
+            "_ROW_TIMESTAMP", "__ROOT__", "_COLIDENTIFIER");
+
+    private SchemaValidator() {
+        // no op
+    }
+
+    /**
+     * Returns the problems of the schema, each prefixed by the path of the field it concerns, or an
+     * empty list if BigQuery should accept it.
+     */
+    static List<String> validate(List<TableFieldSchema> fields) {
+        List<String> problems = new ArrayList<>();
+        if (fields.isEmpty()) {
+            problems.add("schema has no fields");
+            return problems;
+        }
+
+        int columns = 0;
+        Deque<Level> levels = new ArrayDeque<>();
+        levels.push(new Level("", 1, fields));
+        while (!levels.isEmpty()) {
+            Level level = levels.pop();
+            Set<String> names = new HashSet<>();
+            for (TableFieldSchema field : level.fields) {
+                columns++;
+                String path = level.path + field.getName();
+                validateName(field.getName(), path, names, problems);
+                String type = field.getType().toUpperCase(Locale.ROOT);
+                boolean hasFields = field.getFields() != null && !field.getFields().isEmpty();
+                if (!TYPES.contains(type)) {
+                    problems.add(path + ": unknown type " + field.getType());
+                } else if (RECORD_TYPES.contains(type) && !hasFields) {
+                    problems.add(path + ": " + type + " has no fields");
+                } else if (!RECORD_TYPES.contains(type) && hasFields) {
+                    problems.add(path + ": " + type + " cannot have fields");
+                }
+                if (field.getMode() != null && !MODES.contains(field.getMode())) {
+                    problems.add(path + ": unknown mode " + field.getMode());
+                }
+                if (field.getDescription() != null && field.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+                    problems.add(path + ": description longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+                }
+                if (hasFields) {
+                    if (level.depth == MAX_NESTING_DEPTH) {
+                        problems.add(path + ": nested more than " + MAX_NESTING_DEPTH + " levels deep");
+                    } else {
+                        levels.push(new Level(path + ".", level.depth + 1, field.getFields()));
+                    }
+                }
+            }
+        }
+        if (columns > MAX_COLUMNS) {
+            problems.add(columns + " columns, more than the " + MAX_COLUMNS + " allowed");
+        }
+        return problems;
+    }
+
+    /**
+     * Returns the problems of the time partitioning of a table with the given top-level fields, whose
+     * partitioning column must be a date or a time.
+     */
+    static List<String> validatePartitioning(List<TableFieldSchema> fields, SchemaFile.Partitioning partitioning) {
+        List<String> problems = new ArrayList<>();
+        if (!TimePartitioning.Type.DAY.name().equals(partitioning.getType())) {
+            problems.add("timePartitioning: unsupported type " + partitioning.getType() + ", only DAY is");
+        }
+        if (partitioning.getField() != null) {
+            TableFieldSchema field = fields.stream()
+                    .filter(candidate -> partitioning.getField().equalsIgnoreCase(candidate.getName()))
+                    .findFirst().orElse(null);
+            if (field == null) {
+                problems.add("timePartitioning: no top-level field " + partitioning.getField());
+            } else if (!PARTITIONING_TYPES.contains(field.getType().toUpperCase(Locale.ROOT))) {
+                problems.add("timePartitioning: " + field.getName() + " is a " + field.getType()
+                        + ", only DATE, TIMESTAMP and DATETIME fields can partition a table");
+            } else if ("REPEATED".equals(field.getMode())) {
+                problems.add("timePartitioning: " + field.getName() + " is REPEATED");
+            }
+        }
+        if (partitioning.getExpirationMs() != null && partitioning.getExpirationMs() <= 0) {
+            problems.add("timePartitioning: expirationMs must be positive");
+        }
+        return problems;
+    }
+
+    private static void validateName(String name, String path, Set<String> names, List<String> problems) {
+        if (!NAME.matcher(name).matches()) {
+            problems.add(path + ": invalid name, it must start with a letter or an underscore and contain only "
+                    + "letters, digits and underscores");
+        } else if (name.length() > MAX_NAME_LENGTH) {
+            problems.add(path + ": name longer than " + MAX_NAME_LENGTH + " characters");
+        } else {
+            String upperCaseName = name.toUpperCase(Locale.ROOT);
+            RESERVED_PREFIXES.stream().filter(upperCaseName::startsWith).findFirst()
+                    .ifPresent(prefix -> problems.add(path + ": names starting with " + prefix + " are reserved"));
+        }
+        // column names are case-insensitive
+        if (!names.add(name.toLowerCase(Locale.ROOT))) {
+            problems.add(path + ": duplicate field");
+        }
+    }
+
+    private static final class Level {
+        private final String path;
+        private final int depth;
+        private final List<TableFieldSchema> fields;
+
+        private Level(String path, int depth, List<TableFieldSchema> fields) {
+            this.path = path;
+            this.depth = depth;
+            this.fields = fields;
+        }
+    }
+}
@@ -16,11 +16,15 @@
 
 package io.allune.bigquery.maven.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.google.api.services.bigquery.model.TableFieldSchema;
-import com.google.api.services.bigquery.model.TableSchema;
 import com.google.cloud.bigquery.ExternalTableDefinition;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
 import com.google.cloud.bigquery.FormatOptions;
+import com.google.cloud.bigquery.LegacySQLTypeName;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.StandardTableDefinition;
 import com.google.cloud.bigquery.TableDefinition;
@@ -30,13 +34,14 @@ import org.apache.commons.io.IOUtils;
 import org.springframework.core.io.Resource;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
-import static com.google.common.collect.Lists.newArrayList;
 import static io.allune.bigquery.maven.service.ObjectMappers.mapper;
-import static java.util.stream.Collectors.toList;
 
 class TableDefinitionLoader {
 
@@ -45,65 +50,143 @@ class TableDefinitionLoader {
     }
 
     static TableDefinition loadStandardTableDefinition(Resource resource) {
-        return StandardTableDefinition.of(loadTableSchema(resource));
+        SchemaFile schemaFile = loadSchemaFile(resource, true);
+        Schema schema = toSchema(schemaFile.getFields());
+        if (schemaFile.getTimePartitioning() == null) {
+            return StandardTableDefinition.of(schema);
+        }
+        return StandardTableDefinition.newBuilder()
+                .setSchema(schema)
+                .setTimePartitioning(schemaFile.getTimePartitioning().toTimePartitioning())
+                .build();
     }
 
     static TableDefinition loadExternalTableDefinition(String sourceUri, String formatOptions, Resource resource) {
-        return ExternalTableDefinition.of(sourceUri, loadTableSchema(resource), FormatOptions.of(formatOptions));
+        Schema schema = toSchema(loadSchemaFile(resource, false).getFields());
+        return ExternalTableDefinition.of(sourceUri, schema, FormatOptions.of(formatOptions));
     }
 
-    static TableDefinition loadViewDefinition(Resource resource, String projectId, String dataset) {
+    static ViewTemplate loadViewTemplate(String viewName, Resource resource, Map<String, String> variables) {
         try {
-            String view = IOUtils.toString(resource.getInputStream(), "UTF-8")
-                    .replace("$projectId", projectId)
-                    .replace("$datasetName", dataset);
-            return ViewDefinition.of(view);
+            return ViewTemplate.compile(viewName, IOUtils.toString(resource.getInputStream(), "UTF-8"), variables);
         } catch (IOException e) {
             throw new ConfigurationException(e.getMessage(), e);
         }
     }
 
-    private static Schema loadTableSchema(Resource resource) {
-        List<TableFieldSchema> fieldSchemas = getTableFieldSchemas(resource);
-        List<TableFieldSchema> tableFieldSchemas = createTableSchema(fieldSchemas);
-        TableSchema sourceSchema = new TableSchema();
-        sourceSchema.setFields(tableFieldSchemas);
-        return fromPb(sourceSchema);
+    static ViewDefinition toViewDefinition(ViewTemplate template, String projectId, String dataset) {
+        return ViewDefinition.of(template.render(projectId, dataset));
     }
 
-    private static List<TableFieldSchema> getTableFieldSchemas(Resource resource) {
-        List<TableFieldSchema> fieldSchemas;
-        try {
+    /**
+     * Parses the schema file and checks it against the rules of BigQuery, partitioning included,
+     * before it is converted.
+     *
+     * @throws ConfigurationException listing every problem of the schema
+     */
+    static SchemaFile loadSchemaFile(Resource resource, boolean nativeTable) {
+        SchemaFile schemaFile = readSchemaFile(resource);
+        List<String> problems = new ArrayList<>(SchemaValidator.validate(schemaFile.getFields()));
+        if (!nativeTable) {
+            if (schemaFile.getTimePartitioning() != null || schemaFile.hasRangePartitioning()
+                    || schemaFile.hasClustering()) {
+                problems.add("external tables cannot be partitioned or clustered");
+            }
+        } else {
+            if (schemaFile.getTimePartitioning() != null) {
+                problems.addAll(SchemaValidator.validatePartitioning(schemaFile.getFields(),
+                        schemaFile.getTimePartitioning()));
+            }
+            // the BigQuery client the plugin is built with has no model for them
+            if (schemaFile.hasRangePartitioning()) {
+                problems.add("rangePartitioning is not supported, only timePartitioning");
+            }
+            if (schemaFile.hasClustering()) {
+                problems.add("clustering is not supported");
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new ConfigurationException("Invalid schema " + resource.getFilename() + ": "
+                    + String.join("; ", problems));
+        }
+        return schemaFile;
+    }
+
+    private static SchemaFile readSchemaFile(Resource resource) {
+        try (JsonParser parser = mapper().getFactory().createParser(resource.getInputStream())) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                return mapper().readValue(parser, SchemaFile.class);
+            }
             CollectionType type = mapper().getTypeFactory().constructCollectionType(List.class, TableFieldSchema.class);
-            fieldSchemas = mapper().readValue(resource.getInputStream(), type);
+            return SchemaFile.of(mapper().readValue(parser, type));
         } catch (IOException e) {
             throw new ConfigurationException(e.getMessage(), e);
         }
-        return fieldSchemas;
     }
 
-    private static List<TableFieldSchema> createTableSchema(List<TableFieldSchema> tableFieldSchemas) {
+    /**
+     * Converts the parsed field definitions into a {@link Schema}, keeping the order of the definitions.
+     * Records are built bottom-up from an explicit stack, so the depth of the schema is not bound by the
+     * thread stack.
+     */
+    static Schema toSchema(List<TableFieldSchema> tableFieldSchemas) {
+        Deque<RecordFrame> stack = new ArrayDeque<>();
+        RecordFrame frame = new RecordFrame(null, tableFieldSchemas);
+        while (true) {
+            if (frame.hasNext()) {
+                TableFieldSchema tableFieldSchema = frame.next();
+                if (tableFieldSchema.getFields() != null && !tableFieldSchema.getFields().isEmpty()) {
+                    stack.push(frame);
+                    frame = new RecordFrame(tableFieldSchema, tableFieldSchema.getFields());
+                } else {
+                    frame.fields.add(toField(tableFieldSchema, null));
+                }
+            } else if (stack.isEmpty()) {
+                return Schema.of(frame.fields);
+            } else {
+                Field record = toField(frame.record, FieldList.of(frame.fields));
+                frame = stack.pop();
+                frame.fields.add(record);
+            }
+        }
+    }
+
+    private static Field toField(TableFieldSchema tableFieldSchema, FieldList subFields) {
+        // the types accepted by the validation, whatever their case or alias, map to a legacy SQL type
+        LegacySQLTypeName type = LegacySQLTypeName.valueOf(TableDefinitions.normalizeType(tableFieldSchema.getType()));
+        if (type == LegacySQLTypeName.RECORD && subFields == null) {
+            throw new ConfigurationException("Field " + tableFieldSchema.getName() + " of type RECORD has no fields");
+        }
+        try {
+            Field.Builder builder = Field.newBuilder(tableFieldSchema.getName(), type, subFields);
+            if (tableFieldSchema.getDescription() != null) {
+                builder.setDescription(tableFieldSchema.getDescription());
+            }
+            if (tableFieldSchema.getMode() != null) {
+                builder.setMode(Field.Mode.valueOf(tableFieldSchema.getMode()));
+            }
+            return builder.build();
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid field " + tableFieldSchema.getName() + ": " + e.getMessage(), e);
+        }
+    }
 
-        List<TableFieldSchema> allFields = newArrayList();
-        List<TableFieldSchema> simpleFields = tableFieldSchemas.stream().filter(tfs -> !tfs.getType().equals("RECORD")).collect(toList());
-        allFields.addAll(simpleFields);
+    private static final class RecordFrame {
+        private final TableFieldSchema record;
+        private final Iterator<TableFieldSchema> definitions;
+        private final List<Field> fields = new ArrayList<>();
 
-        List<TableFieldSchema> recordFields = tableFieldSchemas.stream().filter(tfs -> tfs.getType().equals("RECORD")).collect(toList());
-        recordFields.forEach(record -> {
-            record.setFields(createTableSchema(record.getFields()));
-            allFields.add(record);
-        });
+        private RecordFrame(TableFieldSchema record, List<TableFieldSchema> definitions) {
+            this.record = record;
+            this.definitions = definitions.iterator();
+        }
 
-        return allFields;
-    }
+        private boolean hasNext() {
+            return definitions.hasNext();
+        }
 
-    private static Schema fromPb(TableSchema tableSchemaPb) {
-        try {
-            Method fromPb = Schema.class.getDeclaredMethod("fromPb", TableSchema.class);
-            fromPb.setAccessible(true);
-            return (Schema) fromPb.invoke(null, tableSchemaPb);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new ConfigurationException(e.getMessage(), e);
+        private TableFieldSchema next() {
+            return definitions.next();
         }
     }
 }
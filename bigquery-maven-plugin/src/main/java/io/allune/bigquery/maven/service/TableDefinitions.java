@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.cloud.bigquery.ExternalTableDefinition;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TimePartitioning;
+import com.google.cloud.bigquery.ViewDefinition;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares the definition built from the local files with the one returned by BigQuery,
+ * ignoring the attributes BigQuery fills in on its own.
+ */
+final class TableDefinitions {
+
+    private static final Map<String, String> TYPE_ALIASES = ImmutableMap.<String, String>builder()
+            .put("INT64", "INTEGER")
+            .put("FLOAT64", "FLOAT")
+            .put("BOOL", "BOOLEAN")
+            .put("STRUCT", "RECORD")
+            .build();
+
+    private TableDefinitions() {
+        // no op
+    }
+
+    static boolean isEquivalent(TableDefinition local, TableDefinition remote) {
+        if (remote == null || local.getType() != remote.getType()) {
+            return false;
+        }
+        if (local instanceof ViewDefinition) {
+            return normalizeQuery(((ViewDefinition) local).getQuery())
+                    .equals(normalizeQuery(((ViewDefinition) remote).getQuery()));
+        }
+        if (local instanceof ExternalTableDefinition) {
+            ExternalTableDefinition localExternal = (ExternalTableDefinition) local;
+            ExternalTableDefinition remoteExternal = (ExternalTableDefinition) remote;
+            if (!Objects.equals(localExternal.getSourceUris(), remoteExternal.getSourceUris())
+                    || !Objects.equals(localExternal.getFormatOptions().getType(), remoteExternal.getFormatOptions().getType())) {
+                return false;
+            }
+        }
+        if (local instanceof StandardTableDefinition && !isEquivalent(
+                ((StandardTableDefinition) local).getTimePartitioning(),
+                ((StandardTableDefinition) remote).getTimePartitioning())) {
+            return false;
+        }
+        return isEquivalent(local.getSchema(), remote.getSchema());
+    }
+
+    static boolean isEquivalent(TimePartitioning local, TimePartitioning remote) {
+        if (local == null || remote == null) {
+            return local == remote;
+        }
+        return local.getType() == remote.getType()
+                && Objects.equals(local.getField(), remote.getField())
+                && Objects.equals(local.getExpirationMs(), remote.getExpirationMs())
+                && Boolean.TRUE.equals(local.getRequirePartitionFilter())
+                == Boolean.TRUE.equals(remote.getRequirePartitionFilter());
+    }
+
+    /**
+     * Describes how the partitioning column of the table changed, which BigQuery cannot apply to an
+     * existing table, or returns null if it did not. The expiration and the partition filter requirement
+     * can be updated.
+     */
+    static String describePartitioningChange(TableDefinition local, TableDefinition remote) {
+        if (!(local instanceof StandardTableDefinition) || !(remote instanceof StandardTableDefinition)) {
+            return null;
+        }
+        String localPartitioning = describePartitioning(((StandardTableDefinition) local).getTimePartitioning());
+        String remotePartitioning = describePartitioning(((StandardTableDefinition) remote).getTimePartitioning());
+        return localPartitioning.equals(remotePartitioning) ? null
+                : "partitioning changed from " + remotePartitioning + " to " + localPartitioning;
+    }
+
+    static boolean isEquivalent(Schema local, Schema remote) {
+        if (local == null || remote == null) {
+            return local == remote;
+        }
+        return isEquivalent(local.getFields(), remote.getFields());
+    }
+
+    static String normalizeType(LegacySQLTypeName type) {
+        return normalizeType(type.name());
+    }
+
+    /**
+     * Returns the legacy SQL name of a type written in any case or with its standard SQL name, such as
+     * {@code struct} or {@code INT64}.
+     */
+    static String normalizeType(String type) {
+        String name = type.toUpperCase(Locale.ROOT);
+        return TYPE_ALIASES.getOrDefault(name, name);
+    }
+
+    static Field.Mode normalizeMode(Field.Mode mode) {
+        return mode == null ? Field.Mode.NULLABLE : mode;
+    }
+
+    private static boolean isEquivalent(FieldList local, FieldList remote) {
+        if (local == null || remote == null) {
+            return (local == null || local.isEmpty()) && (remote == null || remote.isEmpty());
+        }
+        if (local.size() != remote.size()) {
+            return false;
+        }
+        // tables created by earlier versions of the plugin have their records moved after the other fields
+        Map<String, Field> remoteFields = new HashMap<>();
+        remote.forEach(field -> remoteFields.put(field.getName(), field));
+        for (Field field : local) {
+            Field remoteField = remoteFields.get(field.getName());
+            if (remoteField == null || !isEquivalent(field, remoteField)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEquivalent(Field local, Field remote) {
+        return normalizeType(local.getType()).equals(normalizeType(remote.getType()))
+                && normalizeMode(local.getMode()) == normalizeMode(remote.getMode())
+                && (local.getDescription() == null || local.getDescription().equals(remote.getDescription()))
+                && isEquivalent(local.getSubFields(), remote.getSubFields());
+    }
+
+    private static String describePartitioning(TimePartitioning partitioning) {
+        if (partitioning == null) {
+            return "none";
+        }
+        return partitioning.getType() + " on " + (partitioning.getField() != null ? partitioning.getField()
+                : "ingestion time");
+    }
+
+    private static String normalizeQuery(String query) {
+        return query == null ? "" : query.trim();
+    }
+}
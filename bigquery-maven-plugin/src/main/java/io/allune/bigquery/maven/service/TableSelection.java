@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import org.apache.commons.io.FilenameUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The tables of a dataset to delete: those defined in the given schema and view locations, those
+ * whose name matches one of the given wildcard patterns and those carrying all the given labels.
+ * A table must match every criterion that is set; a selection without criteria selects every table.
+ * Only the name and labels returned when listing the tables are used.
+ */
+public final class TableSelection {
+
+    private static final TableSelection ALL = builder().build();
+
+    private final List<String> locations;
+    private final List<String> namePatterns;
+    private final Map<String, String> labels;
+
+    private TableSelection(List<String> locations, List<String> namePatterns, Map<String, String> labels) {
+        this.locations = locations;
+        this.namePatterns = namePatterns;
+        this.labels = labels;
+    }
+
+    public static TableSelection all() {
+        return ALL;
+    }
+
+    public static TableSelection.Builder builder() {
+        return new TableSelection.Builder();
+    }
+
+    public boolean isAll() {
+        return locations.isEmpty() && namePatterns.isEmpty() && labels.isEmpty();
+    }
+
+    List<String> getLocations() {
+        return locations;
+    }
+
+    /**
+     * Returns whether the table matches the name patterns and labels, the locations being resolved
+     * by the service.
+     */
+    boolean matches(String tableName, Map<String, String> tableLabels) {
+        if (!namePatterns.isEmpty()
+                && namePatterns.stream().noneMatch(pattern -> FilenameUtils.wildcardMatch(tableName, pattern))) {
+            return false;
+        }
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            if (tableLabels == null || !label.getValue().equals(tableLabels.get(label.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (isAll()) {
+            return "all tables";
+        }
+        List<String> criteria = new ArrayList<>();
+        if (!locations.isEmpty()) {
+            criteria.add("defined in " + String.join(", ", locations));
+        }
+        if (!namePatterns.isEmpty()) {
+            criteria.add("named " + String.join(", ", namePatterns));
+        }
+        if (!labels.isEmpty()) {
+            criteria.add("labelled " + labels);
+        }
+        return "tables " + String.join(" and ", criteria);
+    }
+
+    public static class Builder {
+
+        private List<String> locations = Collections.emptyList();
+        private List<String> namePatterns = Collections.emptyList();
+        private Map<String, String> labels = Collections.emptyMap();
+
+        private Builder() {
+            // no op
+        }
+
+        /**
+         * Selects the tables and views whose schema or view file is in one of the locations.
+         */
+        public Builder locations(List<String> locations) {
+            this.locations = locations;
+            return this;
+        }
+
+        /**
+         * Selects the tables whose name matches one of the patterns, which may contain {@code *} and {@code ?}.
+         */
+        public Builder namePatterns(List<String> namePatterns) {
+            this.namePatterns = namePatterns;
+            return this;
+        }
+
+        /**
+         * Selects the tables carrying all the labels, with the same values.
+         */
+        public Builder labels(Map<String, String> labels) {
+            this.labels = labels;
+            return this;
+        }
+
+        public TableSelection build() {
+            checkNotNull(locations, "locations is null");
+            checkNotNull(namePatterns, "namePatterns is null");
+            checkNotNull(labels, "labels is null");
+            return new TableSelection(Collections.unmodifiableList(new ArrayList<>(locations)),
+                    Collections.unmodifiableList(new ArrayList<>(namePatterns)),
+                    Collections.unmodifiableMap(new LinkedHashMap<>(labels)));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import io.allune.bigquery.maven.ConfigurationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The query of a view, parsed once into literal text and variable references.
+ * <p>
+ * Variables are written {@code $name} or {@code ${name}}; only the braced form may contain dots, so
+ * {@code $datasetName.table} references the {@code datasetName} variable. {@code $$} stands for a
+ * single {@code $}, and a {@code $} followed by anything else is kept as is. {@code $projectId} and
+ * {@code $datasetName} are substituted when the template is rendered for a dataset; every other variable
+ * is substituted when the template is compiled, which fails if the variable is not defined.
+ */
+final class ViewTemplate {
+
+    static final String PROJECT_ID = "projectId";
+    static final String DATASET_NAME = "datasetName";
+
+    /**
+     * Literal text, at even indexes, alternating with the names of the variables rendered per dataset.
+     */
+    private final String[] parts;
+    private final int literalLength;
+
+    private ViewTemplate(String[] parts) {
+        this.parts = parts;
+        int length = 0;
+        for (int i = 0; i < parts.length; i += 2) {
+            length += parts[i].length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses the query of the view, substituting the given variables.
+     *
+     * @throws ConfigurationException if the query references a variable that is not defined
+     */
+    static ViewTemplate compile(String viewName, String query, Map<String, String> variables) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(query.length());
+        int length = query.length();
+        int i = 0;
+        while (i < length) {
+            char c = query.charAt(i);
+            if (c != '$' || i + 1 == length) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            char next = query.charAt(i + 1);
+            int end;
+            String name;
+            if (next == '$') {
+                literal.append('$');
+                i += 2;
+                continue;
+            } else if (next == '{') {
+                end = query.indexOf('}', i + 2);
+                if (end < 0) {
+                    throw new ConfigurationException("Unterminated variable at line " + line(query, i)
+                            + " of view " + viewName);
+                }
+                name = query.substring(i + 2, end).trim();
+                end++;
+            } else if (Character.isLetter(next) || next == '_') {
+                end = i + 2;
+                while (end < length && (Character.isLetterOrDigit(query.charAt(end)) || query.charAt(end) == '_')) {
+                    end++;
+                }
+                name = query.substring(i + 1, end);
+            } else {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            if (PROJECT_ID.equals(name) || DATASET_NAME.equals(name)) {
+                parts.add(literal.toString());
+                parts.add(name);
+                literal.setLength(0);
+            } else if (variables.containsKey(name)) {
+                literal.append(variables.get(name));
+            } else {
+                throw new ConfigurationException("Undefined variable " + name + " at line " + line(query, i)
+                        + " of view " + viewName);
+            }
+            i = end;
+        }
+        parts.add(literal.toString());
+        return new ViewTemplate(parts.toArray(new String[0]));
+    }
+
+    /**
+     * Returns the query of the view in the given dataset.
+     */
+    String render(String projectId, String dataset) {
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        StringBuilder query = new StringBuilder(literalLength + (parts.length / 2) * 32);
+        for (int i = 0; i < parts.length; i++) {
+            if (i % 2 == 0) {
+                query.append(parts[i]);
+            } else {
+                query.append(PROJECT_ID.equals(parts[i]) ? projectId : dataset);
+            }
+        }
+        return query.toString();
+    }
+
+    /**
+     * Returns the query the template compiles back to, its variables other than the project and dataset
+     * being already substituted.
+     */
+    String getSource() {
+        StringBuilder source = new StringBuilder(literalLength + (parts.length / 2) * 16);
+        for (int i = 0; i < parts.length; i++) {
+            if (i % 2 == 0) {
+                source.append(parts[i].replace("$", "$$"));
+            } else {
+                source.append("${").append(parts[i]).append('}');
+            }
+        }
+        return source.toString();
+    }
+
+    private static int line(String query, int index) {
+        int line = 1;
+        for (int i = 0; i < index; i++) {
+            if (query.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.gax.paging.Page;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQuery.DatasetListOption;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.Dataset;
+import com.google.cloud.bigquery.DatasetId;
+import com.google.cloud.bigquery.DatasetInfo;
+import com.google.cloud.bigquery.TableInfo;
+import io.allune.bigquery.maven.service.InMemoryBigQuery;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AbstractBigQueryMojoTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private BigQuery bigQuery;
+
+    private final List<String> createdTables = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        doAnswer(invocation -> {
+            TableInfo tableInfo = (TableInfo) invocation.getArguments()[0];
+            createdTables.add(tableInfo.getTableId().getDataset() + "." + tableInfo.getTableId().getTable());
+            return null;
+        }).when(bigQuery).create(any(TableInfo.class));
+    }
+
+    @Test
+    public void shouldProvisionEveryDatasetFromTheSameDefinitions() throws Exception {
+        // Given
+        List<Dataset> existing = new ArrayList<>();
+        for (String name : new String[]{"tenant_2", "tenant_1", "other"}) {
+            Dataset dataset = mock(Dataset.class);
+            when(dataset.getDatasetId()).thenReturn(DatasetId.of(name));
+            existing.add(dataset);
+        }
+        @SuppressWarnings("unchecked")
+        Page<Dataset> page = mock(Page.class);
+        when(page.getValues()).thenReturn(existing);
+        when(bigQuery.listDatasets(eq("project"), Matchers.<DatasetListOption>anyVararg())).thenReturn(page);
+        CreateMojo mojo = mojo(schemaFolder(), "main", "tenant_*");
+
+        // When
+        mojo.execute();
+
+        // Then
+        assertThat(createdTables).containsOnly("main.table", "tenant_1.table", "tenant_2.table");
+    }
+
+    @Test
+    public void shouldRetryTheListingOfTheDatasetsMatchingAPattern() throws Exception {
+        // Given
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        for (String name : new String[]{"tenant_1", "tenant_2", "other"}) {
+            inMemoryBigQuery.create(DatasetInfo.of(name));
+        }
+        inMemoryBigQuery.failNext("list datasets", 1);
+        CreateMojo mojo = new CreateMojo() {
+            @Override
+            BigQuery bigQuery() {
+                return inMemoryBigQuery;
+            }
+        };
+        mojo.setProjectId("project");
+        mojo.setCredentialsFile("file:/credentials.json");
+        mojo.setDatasetNames(new String[]{"tenant_*"});
+        mojo.setParallelism(1);
+        mojo.setRequestBurst(1);
+        mojo.setMaxRetries(1);
+        mojo.setInitialRetryDelay(1);
+        mojo.setMaxRetryDelay(1);
+        mojo.setNativeSchemaLocations(new String[]{"file:" + schemaFolder().getAbsolutePath()});
+
+        // When
+        mojo.execute();
+
+        // Then
+        assertThat(inMemoryBigQuery.getRequestCount("list datasets")).isEqualTo(2);
+        assertThat(inMemoryBigQuery.getTableNames("tenant_1")).containsExactly("table");
+        assertThat(inMemoryBigQuery.getTableNames("tenant_2")).containsExactly("table");
+        assertThat(inMemoryBigQuery.getTableNames("other")).isEmpty();
+    }
+
+    @Test
+    public void shouldReportFailedDatasets() throws Exception {
+        // Given
+        when(bigQuery.create(argThat(new ArgumentMatcher<DatasetInfo>() {
+            @Override
+            public boolean matches(Object argument) {
+                return argument instanceof DatasetInfo && ((DatasetInfo) argument).getDatasetId().getDataset().equals("b");
+            }
+        }))).thenThrow(new BigQueryException(403, "Access Denied"));
+        CreateMojo mojo = mojo(schemaFolder(), "a", "b", "c");
+        mojo.setCreateDataset(true);
+
+        // When
+        try {
+            mojo.execute();
+            fail("Expected MojoExecutionException");
+        } catch (MojoExecutionException e) {
+            // Then
+            assertThat(e.getMessage()).isEqualTo("Failed to execute on 1 of 3 datasets (b)");
+            assertThat(createdTables).containsOnly("a.table", "c.table");
+        }
+    }
+
+    @Test
+    public void shouldWriteMetricsReport() throws Exception {
+        // Given
+        File metricsFile = new File(temporaryFolder.getRoot(), "target/bigquery/metrics-default.json");
+        CreateMojo mojo = mojo(schemaFolder(), "main");
+        mojo.setMetricsFile(metricsFile);
+
+        // When
+        mojo.execute();
+
+        // Then
+        JsonNode report = new ObjectMapper().readTree(metricsFile);
+        assertThat(report.get("outcome").asText()).isEqualTo("succeeded");
+        assertThat(report.get("datasets").get(0).asText()).isEqualTo("main");
+        assertThat(report.get("phases").fieldNames())
+                .contains("classLoader", "client", "resources.scan", "definitions.parse", "bigquery.create", "goal");
+        assertThat(report.get("phases").get("bigquery.create").get("count").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldApplyPlanWrittenWithoutClient() throws Exception {
+        // Given
+        File schemaFolder = schemaFolder();
+        File planFile = new File(temporaryFolder.getRoot(), "target/bigquery/plan.json");
+        CreateMojo planMojo = new CreateMojo() {
+            @Override
+            BigQuery bigQuery() {
+                throw new AssertionError("No client must be created while planning");
+            }
+        };
+        planMojo.setProjectId("project");
+        planMojo.setCredentialsFile("file:/credentials.json");
+        planMojo.setDatasetName("main");
+        planMojo.setNativeSchemaLocations(new String[]{"file:" + schemaFolder.getAbsolutePath()});
+        planMojo.setParallelism(1);
+        planMojo.setMode(ProvisioningMode.PLAN);
+        planMojo.setPlanFile(planFile);
+        planMojo.execute();
+        FileUtils.deleteDirectory(schemaFolder);
+        CreateMojo applyMojo = mojo(schemaFolder, "main");
+        applyMojo.setMode(ProvisioningMode.APPLY);
+        applyMojo.setPlanFile(planFile);
+
+        // When
+        applyMojo.execute();
+
+        // Then
+        assertThat(createdTables).containsOnly("main.table");
+    }
+
+    private File schemaFolder() throws Exception {
+        File schemaFolder = temporaryFolder.newFolder();
+        Files.write(new File(schemaFolder, "table.json").toPath(),
+                "[{\"name\": \"id\", \"type\": \"STRING\"}]".getBytes(StandardCharsets.UTF_8));
+        return schemaFolder;
+    }
+
+    private CreateMojo mojo(File schemaFolder, String datasetName, String... datasetNames) {
+        CreateMojo mojo = new CreateMojo() {
+            @Override
+            BigQuery bigQuery() {
+                return bigQuery;
+            }
+        };
+        mojo.setProjectId("project");
+        mojo.setCredentialsFile("file:/credentials.json");
+        mojo.setDatasetName(datasetName);
+        mojo.setDatasetNames(datasetNames);
+        mojo.setDatasetParallelism(2);
+        mojo.setParallelism(1);
+        mojo.setRequestBurst(1);
+        mojo.setNativeSchemaLocations(new String[]{"file:" + schemaFolder.getAbsolutePath()});
+        return mojo;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.bigquery.BigQuery;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BigQueryClientsTest {
+
+    private final AtomicInteger credentialsLoaded = new AtomicInteger();
+    private final AtomicInteger clientsCreated = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        BigQueryClients.clear();
+    }
+
+    @Test
+    public void shouldShareClientsWithinSession() {
+        // Given
+        MavenSession session = session(new DefaultMavenExecutionRequest());
+
+        // When
+        BigQuery first = client(session, "project", "file:/credentials.json");
+        BigQuery second = client(session, "project", "file:/credentials.json");
+        BigQuery otherProject = client(session, "other-project", "file:/credentials.json");
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(otherProject).isNotSameAs(first);
+        assertThat(clientsCreated.get()).isEqualTo(2);
+        assertThat(credentialsLoaded.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotShareClientsAcrossSessionsOrCredentials() {
+        // Given
+        MavenSession session = session(new DefaultMavenExecutionRequest());
+        BigQuery first = client(session, "project", "file:/credentials.json");
+
+        // When
+        BigQuery otherSession = client(session(new DefaultMavenExecutionRequest()), "project",
+                "file:/credentials.json");
+        BigQuery otherCredentials = client(session, "project", "file:/other.json");
+
+        // Then
+        assertThat(otherSession).isNotSameAs(first);
+        assertThat(otherCredentials).isNotSameAs(first);
+        assertThat(credentialsLoaded.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldShareClientsAcrossTheSessionClonesOfAParallelBuild() {
+        // Given
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        BigQuery first = client(session(request), "project", "file:/credentials.json");
+
+        // When
+        BigQuery clone = client(session(request), "project", "file:/credentials.json");
+
+        // Then
+        assertThat(clone).isSameAs(first);
+        assertThat(clientsCreated.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCacheWithoutSession() {
+        assertThat(client(null, "project", "file:/credentials.json"))
+                .isNotSameAs(client(null, "project", "file:/credentials.json"));
+    }
+
+    private static MavenSession session(MavenExecutionRequest request) {
+        MavenSession session = mock(MavenSession.class);
+        when(session.getRequest()).thenReturn(request);
+        return session;
+    }
+
+    private BigQuery client(MavenSession session, String projectId, String credentialsSource) {
+        return BigQueryClients.get(session, projectId, credentialsSource,
+                () -> {
+                    credentialsLoaded.incrementAndGet();
+                    return mock(GoogleCredentials.class);
+                },
+                (project, credentials) -> {
+                    clientsCreated.incrementAndGet();
+                    return mock(BigQuery.class);
+                });
+    }
+}
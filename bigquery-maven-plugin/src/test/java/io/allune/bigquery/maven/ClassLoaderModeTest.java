@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassLoaderModeTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ClassLoader parent = getClass().getClassLoader();
+
+    private MavenProject project;
+    private File outputDirectory;
+    private File resourceDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        outputDirectory = temporaryFolder.newFolder("classes");
+        resourceDirectory = temporaryFolder.newFolder("resources");
+        assertThat(new File(resourceDirectory, "bigquery/schemas").mkdirs()).isTrue();
+
+        project = new MavenProject();
+        Build build = new Build();
+        build.setOutputDirectory(outputDirectory.getPath());
+        build.setTestOutputDirectory(temporaryFolder.newFolder("test-classes").getPath());
+        project.setBuild(build);
+        Resource resource = new Resource();
+        resource.setDirectory(resourceDirectory.getPath());
+        project.addResource(resource);
+    }
+
+    @Test
+    public void shouldNotCreateClassLoaderForFileLocations() {
+        // Given
+        CreateMojo mojo = mojo("file:/schemas", "file:/credentials.json");
+
+        // When
+        ClassLoader classLoader = mojo.createClassLoader(parent);
+
+        // Then
+        assertThat(classLoader).isSameAs(parent);
+    }
+
+    @Test
+    public void shouldAddOnlyDirectoriesHoldingClassPathLocations() throws IOException {
+        // Given
+        CreateMojo mojo = mojo("classpath:/bigquery/schemas/**/*.json", "file:/credentials.json");
+
+        // When
+        ClassLoader classLoader = mojo.createClassLoader(parent);
+
+        // Then
+        assertThat(((URLClassLoader) classLoader).getURLs()).containsExactly(resourceDirectory.toURI().toURL());
+        assertThat(classLoader.getParent()).isSameAs(parent);
+    }
+
+    @Test
+    public void shouldReuseClassLoaderAcrossGoalsOfTheProject() {
+        // Given
+        ClassLoader first = mojo("bigquery/schemas", "file:/credentials.json").createClassLoader(parent);
+        SyncMojo sync = new SyncMojo();
+        sync.setMavenProject(project);
+        sync.setViewLocations(new String[]{"classpath:bigquery/schemas"});
+
+        // When
+        ClassLoader second = sync.createClassLoader(parent);
+
+        // Then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void shouldNotReuseClassLoaderOfAnotherParent() {
+        // Given
+        ClassLoader first = mojo("bigquery/schemas", "file:/credentials.json").createClassLoader(parent);
+        ClassLoader otherParent = new URLClassLoader(new URL[0], parent);
+
+        // When
+        ClassLoader second = mojo("bigquery/schemas", "file:/credentials.json").createClassLoader(otherParent);
+
+        // Then
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getParent()).isSameAs(otherParent);
+    }
+
+    @Test
+    public void shouldAddProjectClassPathInFullMode() throws IOException {
+        // Given
+        CreateMojo mojo = mojo("file:/schemas", "file:/credentials.json");
+        mojo.setClassLoaderMode(ClassLoaderMode.FULL);
+
+        // When
+        ClassLoader classLoader = mojo.createClassLoader(parent);
+
+        // Then
+        URL outputUrl = outputDirectory.toURI().toURL();
+        assertThat(((URLClassLoader) classLoader).getURLs()).contains(outputUrl);
+    }
+
+    private CreateMojo mojo(String schemaLocation, String credentialsFile) {
+        CreateMojo mojo = new CreateMojo();
+        mojo.setMavenProject(project);
+        mojo.setCredentialsFile(credentialsFile);
+        mojo.setNativeSchemaLocations(new String[]{schemaLocation});
+        return mojo;
+    }
+}
@@ -17,15 +17,21 @@
 package io.allune.bigquery.maven;
 
 import com.google.cloud.bigquery.BigQueryException;
+import com.google.common.collect.ImmutableMap;
 import io.allune.bigquery.maven.service.BigQueryServiceImpl;
+import io.allune.bigquery.maven.service.TableSelection;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -54,6 +60,47 @@ public class CleanMojoTest {
         verify(bigQueryService, never()).deleteDataset(eq(false));
     }
 
+    @Test
+    public void shouldRecreateDatasetAboveThreshold() throws MojoExecutionException {
+        // Given
+        CleanMojo mojo = new CleanMojo();
+        mojo.setDatasetName("testDataset");
+        mojo.setDeleteTables(true);
+        mojo.setRecreateDatasetThreshold(1000);
+
+        // When
+        mojo.doExecute(bigQueryService);
+
+        // Then
+        verify(bigQueryService).deleteTables(argThat(new ArgumentMatcher<TableSelection>() {
+            @Override
+            public boolean matches(Object selection) {
+                return ((TableSelection) selection).isAll();
+            }
+        }), eq(1000));
+        verify(bigQueryService, never()).deleteTables();
+    }
+
+    @Test
+    public void shouldOnlyDeleteSelectedTables() throws MojoExecutionException {
+        // Given
+        CleanMojo mojo = new CleanMojo();
+        mojo.setDatasetName("testDataset");
+        mojo.setDeleteTables(true);
+        mojo.setTablePatterns(new String[]{"tmp_*"});
+        mojo.setTableLabels(ImmutableMap.of("managed-by", "bigquery-maven-plugin"));
+        ArgumentCaptor<TableSelection> selection = ArgumentCaptor.forClass(TableSelection.class);
+
+        // When
+        mojo.doExecute(bigQueryService);
+
+        // Then
+        verify(bigQueryService).deleteTables(selection.capture(), eq(0));
+        assertThat(selection.getValue()).hasToString(
+                "tables named tmp_* and labelled {managed-by=bigquery-maven-plugin}");
+        verify(bigQueryService, never()).deleteTables();
+    }
+
     @Test
     public void shouldThrowExceptionIfDeleteTablesFails() {
         // Given
@@ -16,19 +16,28 @@
 
 package io.allune.bigquery.maven;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.cloud.bigquery.BigQueryException;
+import io.allune.bigquery.maven.cache.FingerprintCache;
 import io.allune.bigquery.maven.service.BigQueryServiceImpl;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -40,6 +49,9 @@ import static org.mockito.Mockito.verify;
 @RunWith(MockitoJUnitRunner.class)
 public class CreateMojoTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Mock
     private BigQueryServiceImpl bigQueryService;
 
@@ -207,4 +219,79 @@ public class CreateMojoTest {
             assertTrue(ex.getCause() instanceof BigQueryException);
         }
     }
+
+    @Test
+    public void shouldThrowExceptionIfSomeTablesFail() {
+        CreateMojo mojo = new CreateMojo();
+        mojo.setNativeSchemaLocations(expectedSchemaLocations);
+        ProvisioningException failure = new ProvisioningException("Failed to create tables",
+                singletonList(new BigQueryException(409, "Already Exists")));
+        doThrow(failure).when(bigQueryService).createNativeTables(any(List.class));
+
+        // When
+        try {
+            mojo.doExecute(bigQueryService);
+            fail("Expected MojoExecutionException");
+        } // Then
+        catch (MojoExecutionException ex) {
+            // Expected
+            assertTrue(ex.getCause() instanceof ProvisioningException);
+        }
+    }
+
+    @Test
+    public void shouldSkipUnchangedExecution() throws Exception {
+        // Given
+        File schemaFolder = temporaryFolder.newFolder();
+        Files.write(new File(schemaFolder, "table.json").toPath(), "[]".getBytes(StandardCharsets.UTF_8));
+        File metricsFile = new File(temporaryFolder.getRoot(), "metrics.json");
+        CreateMojo mojo = new CreateMojo();
+        mojo.setProjectId("project");
+        mojo.setDatasetName(expectedDatasetName);
+        mojo.setNativeSchemaLocations(new String[]{"file:" + schemaFolder.getAbsolutePath()});
+        mojo.setSkipUnchanged(true);
+        mojo.setCacheDirectory(temporaryFolder.newFolder());
+        mojo.setMetricsFile(metricsFile);
+        new FingerprintCache(mojo.getCacheDirectory())
+                .store("project", expectedDatasetName, "CreateMojo", mojo.computeFingerprint());
+
+        // When
+        mojo.execute();
+
+        // Then no class loader or client was needed
+        JsonNode report = new ObjectMapper().readTree(metricsFile);
+        assertThat(report.get("outcome").asText()).isEqualTo("skipped");
+        assertThat(report.get("phases").has("fingerprint")).isTrue();
+        assertThat(report.get("phases").has("classLoader")).isFalse();
+        assertThat(report.get("phases").has("client")).isFalse();
+    }
+
+    @Test
+    public void shouldNotBeUpToDateOnceASchemaIsEdited() throws Exception {
+        // Given
+        File schemaFolder = temporaryFolder.newFolder();
+        Files.write(new File(schemaFolder, "table.json").toPath(), "[]".getBytes(StandardCharsets.UTF_8));
+        CreateMojo mojo = new CreateMojo();
+        mojo.setProjectId("project");
+        mojo.setDatasetName(expectedDatasetName);
+        mojo.setNativeSchemaLocations(new String[]{"file:" + schemaFolder.getAbsolutePath()});
+        mojo.setCacheDirectory(temporaryFolder.newFolder());
+        new FingerprintCache(mojo.getCacheDirectory())
+                .store("project", expectedDatasetName, "CreateMojo", mojo.computeFingerprint());
+
+        // When
+        Files.write(new File(schemaFolder, "table.json").toPath(), "[ ]".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThat(new FingerprintCache(mojo.getCacheDirectory())
+                .isUpToDate("project", expectedDatasetName, "CreateMojo", mojo.computeFingerprint())).isFalse();
+    }
+
+    @Test
+    public void shouldNotFingerprintLocationsOutsideTheProject() {
+        CreateMojo mojo = new CreateMojo();
+        mojo.setNativeSchemaLocations(new String[]{"classpath:schemas"});
+
+        assertThat(mojo.computeFingerprint()).isNull();
+    }
 }
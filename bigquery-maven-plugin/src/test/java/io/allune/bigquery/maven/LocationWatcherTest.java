@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import io.allune.bigquery.maven.LocationWatcher.Changes;
+import io.allune.bigquery.maven.LocationWatcher.Kind;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocationWatcherTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test(timeout = 30000)
+    public void shouldReportABurstOfEditsAsOneBatch() throws Exception {
+        // Given
+        File schemas = temporaryFolder.newFolder("schemas");
+        File views = temporaryFolder.newFolder("views");
+        write(new File(schemas, "ignored.txt"), "");
+        try (LocationWatcher watcher = new LocationWatcher(200)) {
+            watcher.watch(Kind.NATIVE_TABLES, schemas.getPath() + "/**/*.json");
+            watcher.watch(Kind.VIEWS, views.getPath());
+
+            // When
+            write(new File(schemas, "table.json"), "[]");
+            write(new File(schemas, "table.json"), "[{\"name\": \"id\", \"type\": \"STRING\"}]");
+            write(new File(schemas, "ignored.txt"), "changed");
+            write(new File(views, ".view.sql.swp"), "");
+            File nested = new File(views, "nested");
+            assertThat(nested.mkdir()).isTrue();
+            write(new File(nested, "view.sql"), "SELECT 1");
+            Changes changes = watcher.take();
+
+            // Then
+            assertThat(changes.getFiles(Kind.NATIVE_TABLES))
+                    .containsExactly("file:" + new File(schemas, "table.json").getAbsolutePath());
+            assertThat(changes.getFiles(Kind.VIEWS))
+                    .containsExactly("file:" + new File(nested, "view.sql").getAbsolutePath());
+            assertThat(changes.getRemovedTables()).isEmpty();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void shouldReportDeletedFilesAsRemovedTables() throws Exception {
+        // Given
+        File schemas = temporaryFolder.newFolder("schemas");
+        File views = temporaryFolder.newFolder("views");
+        File nested = new File(views, "nested");
+        assertThat(nested.mkdir()).isTrue();
+        write(new File(schemas, "deleted.json"), "[]");
+        write(new File(schemas, "moved.json"), "[]");
+        write(new File(nested, "first.sql"), "SELECT 1");
+        write(new File(nested, "second.sql"), "SELECT 2");
+        try (LocationWatcher watcher = new LocationWatcher(200)) {
+            watcher.watch(Kind.NATIVE_TABLES, schemas.getPath());
+            watcher.watch(Kind.VIEWS, views.getPath());
+
+            // When
+            Files.delete(new File(schemas, "deleted.json").toPath());
+            Files.move(new File(schemas, "moved.json").toPath(), new File(views, "moved.sql").toPath());
+            Files.delete(new File(nested, "first.sql").toPath());
+            Files.delete(new File(nested, "second.sql").toPath());
+            Files.delete(nested.toPath());
+            Changes changes = watcher.take();
+
+            // Then
+            assertThat(changes.getRemovedTables()).containsExactlyInAnyOrder("deleted", "first", "second");
+            assertThat(changes.getFiles(Kind.VIEWS))
+                    .containsExactly("file:" + new File(views, "moved.sql").getAbsolutePath());
+            assertThat(changes.getFiles(Kind.NATIVE_TABLES)).isEmpty();
+        }
+    }
+
+    @Test
+    public void shouldNotWatchMissingLocations() throws IOException {
+        try (LocationWatcher watcher = new LocationWatcher(200)) {
+            // When
+            boolean watching = watcher.watch(Kind.NATIVE_TABLES, new File(temporaryFolder.getRoot(), "missing").getPath());
+
+            // Then
+            assertThat(watching).isFalse();
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.DatasetInfo;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableInfo;
+import io.allune.bigquery.maven.service.InMemoryBigQuery;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Provisions and cleans thousands of tables and deep chains of views against an {@link InMemoryBigQuery}
+ * with simulated latency, failing when the wall-clock time, the peak heap or the number of requests
+ * exceed their budget. Run with {@code mvn verify -Pscale-tests}; the volumes, latency and budgets can
+ * be set with the {@code scale.*} system properties. The metrics report of each goal is written to
+ * {@code target/scale-tests}, along with the measured time, peak heap and requests as its {@code scale} object.
+ */
+public class ProvisioningScaleIT {
+
+    private static final int TABLES = Integer.getInteger("scale.tables", 5000);
+    private static final int VIEW_CHAINS = Integer.getInteger("scale.viewChains", 10);
+    private static final int VIEW_CHAIN_DEPTH = Integer.getInteger("scale.viewChainDepth", 50);
+    private static final int FIELDS = Integer.getInteger("scale.fields", 30);
+    private static final long LATENCY_MILLIS = Long.getLong("scale.latencyMillis", 5);
+    private static final int PARALLELISM = Integer.getInteger("scale.parallelism", 32);
+
+    private static final long CREATE_BUDGET_MILLIS = Long.getLong("scale.budget.createMillis", 30000);
+    private static final long CLEAN_BUDGET_MILLIS = Long.getLong("scale.budget.cleanMillis", 15000);
+    private static final long HEAP_BUDGET_MB = Long.getLong("scale.budget.heapMb", 256);
+    private static final double REQUEST_BUDGET_RATIO = Double.parseDouble(System.getProperty("scale.budget.requestRatio", "1.05"));
+
+    private static final File REPORT_DIRECTORY = new File(System.getProperty("scale.reportDirectory", "target/scale-tests"));
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private InMemoryBigQuery bigQuery;
+
+    @Before
+    public void setUp() {
+        bigQuery = new InMemoryBigQuery("project").seed(1);
+    }
+
+    @Test
+    public void shouldCreateTablesAndViewChainsWithinBudget() throws Exception {
+        // Given
+        File schemaFolder = writeSchemas();
+        File viewFolder = writeViewChains();
+        CreateMojo mojo = mojo(new CreateMojo() {
+            @Override
+            BigQuery bigQuery() {
+                return bigQuery;
+            }
+        });
+        mojo.setCreateDataset(true);
+        mojo.setNativeSchemaLocations(new String[]{"file:" + schemaFolder.getAbsolutePath()});
+        mojo.setViewLocations(new String[]{"file:" + viewFolder.getAbsolutePath()});
+        mojo.setMetricsFile(new File(REPORT_DIRECTORY, "create.json"));
+
+        // When
+        Measurement measurement = measure(mojo::execute);
+
+        // Then
+        int objects = TABLES + VIEW_CHAINS * VIEW_CHAIN_DEPTH;
+        report("create", measurement, objects);
+        assertThat(bigQuery.getTableNames("dataset")).hasSize(objects);
+        assertThat(measurement.millis).as("wall-clock time in ms").isLessThanOrEqualTo(CREATE_BUDGET_MILLIS);
+        assertThat(measurement.peakHeapMb).as("peak heap in MB").isLessThanOrEqualTo(HEAP_BUDGET_MB);
+        assertThat(measurement.requests).as("requests").isLessThanOrEqualTo(requestBudget(objects + 1));
+    }
+
+    @Test
+    public void shouldCleanTablesWithinBudget() throws Exception {
+        // Given
+        bigQuery.create(DatasetInfo.of("dataset"));
+        Schema schema = Schema.of(Field.of("id", LegacySQLTypeName.STRING));
+        for (int i = 0; i < TABLES; i++) {
+            bigQuery.create(TableInfo.of(TableId.of("dataset", "table_" + i), StandardTableDefinition.of(schema)));
+        }
+        CleanMojo mojo = mojo(new CleanMojo() {
+            @Override
+            BigQuery bigQuery() {
+                return bigQuery;
+            }
+        });
+        mojo.setDeleteTables(true);
+        mojo.setDeleteDataset(true);
+        mojo.setMetricsFile(new File(REPORT_DIRECTORY, "clean.json"));
+
+        // When
+        Measurement measurement = measure(mojo::execute);
+
+        // Then
+        report("clean", measurement, TABLES);
+        assertThat(bigQuery.getDataset("dataset")).isNull();
+        assertThat(measurement.millis).as("wall-clock time in ms").isLessThanOrEqualTo(CLEAN_BUDGET_MILLIS);
+        assertThat(measurement.peakHeapMb).as("peak heap in MB").isLessThanOrEqualTo(HEAP_BUDGET_MB);
+        // one delete per table, one listing per page of 1000 tables, the dataset lookup and deletion
+        assertThat(measurement.requests).as("requests").isLessThanOrEqualTo(requestBudget(TABLES + TABLES / 1000 + 4));
+    }
+
+    private <T extends AbstractBigQueryMojo> T mojo(T mojo) {
+        mojo.setProjectId("project");
+        mojo.setCredentialsFile("file:/credentials.json");
+        mojo.setDatasetName("dataset");
+        mojo.setParallelism(PARALLELISM);
+        mojo.setRequestBurst(1);
+        mojo.setMaxRetries(5);
+        mojo.setInitialRetryDelay(10);
+        mojo.setMaxRetryDelay(100);
+        return mojo;
+    }
+
+    private Measurement measure(Execution execution) throws Exception {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        bigQuery.latency(LATENCY_MILLIS, 2 * LATENCY_MILLIS);
+        long requests = bigQuery.getRequestCount();
+        long start = System.nanoTime();
+        execution.run();
+        Measurement measurement = new Measurement();
+        measurement.millis = (System.nanoTime() - start) / 1_000_000;
+        measurement.requests = bigQuery.getRequestCount() - requests;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                measurement.peakHeapMb += pool.getPeakUsage().getUsed() / (1024 * 1024);
+            }
+        }
+        return measurement;
+    }
+
+    private static long requestBudget(long expectedRequests) {
+        return (long) Math.ceil(expectedRequests * REQUEST_BUDGET_RATIO);
+    }
+
+    /**
+     * Adds the measurement to the metrics report of the goal, as its {@code scale} object.
+     */
+    private static void report(String goal, Measurement measurement, int objects) throws IOException {
+        File reportFile = new File(REPORT_DIRECTORY, goal + ".json");
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode report = (ObjectNode) mapper.readTree(reportFile);
+        report.putObject("scale")
+                .put("objects", objects)
+                .put("millis", measurement.millis)
+                .put("peakHeapMb", measurement.peakHeapMb)
+                .put("requests", measurement.requests);
+        mapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+    }
+
+    private File writeSchemas() throws IOException {
+        StringBuilder schema = new StringBuilder("[");
+        for (int i = 0; i < FIELDS; i++) {
+            schema.append("{\"name\": \"field_").append(i).append("\", \"type\": \"STRING\", \"mode\": \"NULLABLE\", ")
+                    .append("\"description\": \"Field ").append(i).append("\"},");
+        }
+        schema.append("{\"name\": \"record\", \"type\": \"RECORD\", \"mode\": \"REPEATED\", \"fields\": [")
+                .append("{\"name\": \"id\", \"type\": \"INTEGER\"}, {\"name\": \"at\", \"type\": \"TIMESTAMP\"}]}]");
+        byte[] content = schema.toString().getBytes(StandardCharsets.UTF_8);
+        File folder = temporaryFolder.newFolder("schemas");
+        for (int i = 0; i < TABLES; i++) {
+            Files.write(new File(folder, "table_" + i + ".json").toPath(), content);
+        }
+        return folder;
+    }
+
+    private File writeViewChains() throws IOException {
+        File folder = temporaryFolder.newFolder("views");
+        for (int chain = 0; chain < VIEW_CHAINS; chain++) {
+            for (int depth = 0; depth < VIEW_CHAIN_DEPTH; depth++) {
+                String source = depth == 0 ? "table_" + chain % TABLES : "view_" + chain + "_" + (depth - 1);
+                String query = "SELECT * FROM `$projectId.$datasetName." + source + "`";
+                Files.write(new File(folder, "view_" + chain + "_" + depth + ".sql").toPath(),
+                        query.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return folder;
+    }
+
+    private interface Execution {
+
+        void run() throws Exception;
+    }
+
+    private static final class Measurement {
+
+        private long millis;
+        private long peakHeapMb;
+        private long requests;
+    }
+}
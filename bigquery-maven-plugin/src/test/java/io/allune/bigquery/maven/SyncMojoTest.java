@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import com.google.cloud.bigquery.BigQueryException;
+import io.allune.bigquery.maven.service.BigQueryServiceImpl;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SyncMojoTest {
+
+    @Mock
+    private BigQueryServiceImpl bigQueryService;
+
+    @Test
+    public void testSync() throws MojoExecutionException {
+        // Given
+        SyncMojo mojo = new SyncMojo();
+        mojo.setNativeSchemaLocations(new String[]{"native"});
+        mojo.setViewLocations(new String[]{"views"});
+        mojo.setSourceUri("sourceUri");
+        mojo.setFormatOptions("formatOptions");
+        mojo.setDeleteRemoved(true);
+
+        // When
+        mojo.doExecute(bigQueryService);
+
+        // Then
+        verify(bigQueryService).sync("sourceUri", "formatOptions", asList("native"),
+                Collections.<String>emptyList(), asList("views"), true);
+    }
+
+    @Test
+    public void shouldCreateMissingDataset() throws MojoExecutionException {
+        // Given
+        SyncMojo mojo = new SyncMojo();
+        mojo.setCreateDataset(true);
+        mojo.setDataLocation("EU");
+        when(bigQueryService.datasetExists()).thenReturn(false);
+
+        // When
+        mojo.doExecute(bigQueryService);
+
+        // Then
+        verify(bigQueryService).createDataset("EU");
+    }
+
+    @Test
+    public void shouldNotCreateExistingDataset() throws MojoExecutionException {
+        // Given
+        SyncMojo mojo = new SyncMojo();
+        mojo.setCreateDataset(true);
+        when(bigQueryService.datasetExists()).thenReturn(true);
+
+        // When
+        mojo.doExecute(bigQueryService);
+
+        // Then
+        verify(bigQueryService, never()).createDataset(anyString());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfSyncFails() {
+        // Given
+        SyncMojo mojo = new SyncMojo();
+        doThrow(BigQueryException.class).when(bigQueryService).sync(anyString(), anyString(), any(List.class),
+                any(List.class), any(List.class), anyBoolean());
+
+        try {
+            // When
+            mojo.doExecute(bigQueryService);
+            fail("MojoExecutionException expected");
+        } // Then
+        catch (MojoExecutionException ex) {
+            // Expected
+            assertTrue(ex.getCause() instanceof BigQueryException);
+        }
+    }
+}
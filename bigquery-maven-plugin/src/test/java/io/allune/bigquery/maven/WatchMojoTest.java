@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven;
+
+import io.allune.bigquery.maven.service.BigQueryServiceImpl;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WatchMojoTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private BigQueryServiceImpl bigQueryService;
+
+    @Test(timeout = 30000)
+    public void shouldSyncThenPushEachChangeUntilInterrupted() throws Exception {
+        // Given
+        File schemas = temporaryFolder.newFolder("schemas");
+        String location = "file:" + schemas.getAbsolutePath();
+        WatchMojo mojo = new WatchMojo();
+        mojo.setNativeSchemaLocations(new String[]{location});
+        mojo.setSourceUri("sourceUri");
+        mojo.setFormatOptions("formatOptions");
+        mojo.setDebounce(50);
+        doThrow(new ConfigurationException("Invalid schema")).doNothing().when(bigQueryService).syncFiles(
+                "sourceUri", "formatOptions", asList("file:" + new File(schemas, "table.json").getAbsolutePath()),
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread watch = new Thread(() -> {
+            try {
+                mojo.doExecute(bigQueryService);
+            } catch (MojoExecutionException e) {
+                failure.set(e);
+            }
+        });
+
+        // When
+        watch.start();
+        verify(bigQueryService, timeout(10000).atLeastOnce()).sync("sourceUri", "formatOptions", asList(location),
+                Collections.emptyList(), Collections.emptyList(), false);
+        Files.write(new File(schemas, "table.json").toPath(), "[".getBytes(StandardCharsets.UTF_8));
+        verify(bigQueryService, timeout(10000).atLeastOnce()).syncFiles("sourceUri", "formatOptions",
+                asList("file:" + new File(schemas, "table.json").getAbsolutePath()),
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        Files.write(new File(schemas, "table.json").toPath(), "[]".getBytes(StandardCharsets.UTF_8));
+        Files.delete(new File(schemas, "table.json").toPath());
+        verify(bigQueryService, timeout(10000).atLeastOnce()).syncFiles("sourceUri", "formatOptions",
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), asList("table"));
+        watch.interrupt();
+        watch.join();
+
+        // Then
+        assertThat(failure.get()).isNull();
+    }
+
+    @Test
+    public void shouldFailWithoutAnyLocationToWatch() {
+        // Given
+        WatchMojo mojo = new WatchMojo();
+        mojo.setViewLocations(new String[]{"file:" + new File(temporaryFolder.getRoot(), "missing").getPath()});
+
+        try {
+            // When
+            mojo.doExecute(bigQueryService);
+            fail("MojoExecutionException expected");
+        } // Then
+        catch (MojoExecutionException ex) {
+            assertThat(ex).hasMessage("None of the schema and view locations is in the project");
+            verifyZeroInteractions(bigQueryService);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FingerprintCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private FingerprintCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new FingerprintCache(temporaryFolder.getRoot());
+    }
+
+    @Test
+    public void shouldMatchStoredFingerprint() throws IOException {
+        cache.store("project", "dataset", "CreateMojo", "abc");
+
+        assertThat(cache.isUpToDate("project", "dataset", "CreateMojo", "abc")).isTrue();
+        assertThat(cache.isUpToDate("project", "dataset", "CreateMojo", "def")).isFalse();
+        assertThat(cache.isUpToDate("project", "dataset", "SyncMojo", "abc")).isFalse();
+        assertThat(cache.isUpToDate("project", "other", "CreateMojo", "abc")).isFalse();
+    }
+
+    @Test
+    public void shouldInvalidateOneGoal() throws IOException {
+        cache.store("project", "dataset", "CreateMojo", "abc");
+        cache.store("project", "dataset", "SyncMojo", "def");
+
+        cache.invalidate("project", "dataset", "CreateMojo");
+
+        assertThat(cache.isUpToDate("project", "dataset", "CreateMojo", "abc")).isFalse();
+        assertThat(cache.isUpToDate("project", "dataset", "SyncMojo", "def")).isTrue();
+    }
+
+    @Test
+    public void shouldInvalidateAllGoals() throws IOException {
+        cache.store("project", "dataset", "CreateMojo", "abc");
+        cache.store("project", "dataset", "SyncMojo", "def");
+        cache.store("project", "other", "CreateMojo", "abc");
+
+        cache.invalidateAll("project", "dataset");
+
+        assertThat(cache.isUpToDate("project", "dataset", "CreateMojo", "abc")).isFalse();
+        assertThat(cache.isUpToDate("project", "dataset", "SyncMojo", "def")).isFalse();
+        assertThat(cache.isUpToDate("project", "other", "CreateMojo", "abc")).isTrue();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FingerprintTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldChangeWhenAFileChanges() throws IOException {
+        File folder = temporaryFolder.newFolder();
+        File schema = new File(folder, "table.json");
+        Files.write(schema.toPath(), "[]".getBytes(UTF_8));
+        String before = new Fingerprint().add("dataset", "a").addFile(folder).value();
+        String same = new Fingerprint().add("dataset", "a").addFile(folder).value();
+
+        Files.write(schema.toPath(), "[ ]".getBytes(UTF_8));
+        String after = new Fingerprint().add("dataset", "a").addFile(folder).value();
+
+        assertThat(same).isEqualTo(before);
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    public void shouldChangeWhenAFileIsAdded() throws IOException {
+        File folder = temporaryFolder.newFolder();
+        Files.write(new File(folder, "a.json").toPath(), "[]".getBytes(UTF_8));
+        String before = new Fingerprint().addFile(folder).value();
+
+        new File(folder, "sub").mkdir();
+        Files.write(new File(folder, "sub/b.json").toPath(), "[]".getBytes(UTF_8));
+
+        assertThat(new Fingerprint().addFile(folder).value()).isNotEqualTo(before);
+    }
+
+    @Test
+    public void shouldDistinguishValues() {
+        assertThat(new Fingerprint().add("dataset", "ab").add("location", "c").value())
+                .isNotEqualTo(new Fingerprint().add("dataset", "a").add("location", "bc").value());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecutionMetricsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldComputeNearestRankPercentiles() {
+        // Given
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        for (int i = 100; i >= 1; i--) {
+            metrics.record("bigquery.create", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        // When
+        Map<String, Number> statistics = metrics.getPhases().get("bigquery.create");
+
+        // Then
+        assertThat(statistics.get("count")).isEqualTo(100);
+        assertThat(statistics.get("totalMillis")).isEqualTo(5050.0);
+        assertThat(statistics.get("minMillis")).isEqualTo(1.0);
+        assertThat(statistics.get("meanMillis")).isEqualTo(50.5);
+        assertThat(statistics.get("p50Millis")).isEqualTo(50.0);
+        assertThat(statistics.get("p90Millis")).isEqualTo(90.0);
+        assertThat(statistics.get("p99Millis")).isEqualTo(99.0);
+        assertThat(statistics.get("maxMillis")).isEqualTo(100.0);
+    }
+
+    @Test
+    public void shouldRecordFailedPhases() {
+        // Given
+        ExecutionMetrics metrics = new ExecutionMetrics();
+
+        // When
+        try {
+            metrics.time("credentials", () -> {
+                throw new IllegalStateException("No credentials");
+            });
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // Then
+        assertThat(metrics.getPhases()).containsOnlyKeys("credentials");
+        assertThat(metrics.summary()).hasSize(1);
+        assertThat(metrics.summary().get(0)).startsWith("credentials: 1 in ");
+    }
+
+    @Test
+    public void shouldWriteReport() throws Exception {
+        // Given
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        metrics.record("classLoader", TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.record("bigquery.create", TimeUnit.MILLISECONDS.toNanos(20));
+        File file = new File(temporaryFolder.getRoot(), "bigquery/metrics-default.json");
+
+        // When
+        metrics.writeReport(file, Collections.singletonMap("goal", "CreateMojo"));
+
+        // Then
+        JsonNode report = new ObjectMapper().readTree(file);
+        assertThat(report.get("goal").asText()).isEqualTo("CreateMojo");
+        assertThat(report.get("phases").fieldNames()).containsExactly("classLoader", "bigquery.create");
+        assertThat(report.get("phases").get("bigquery.create").get("p99Millis").asDouble()).isEqualTo(20.0);
+    }
+}
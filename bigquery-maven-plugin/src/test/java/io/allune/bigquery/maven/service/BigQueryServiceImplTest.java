@@ -16,23 +16,63 @@
 
 package io.allune.bigquery.maven.service;
 
+import com.google.api.gax.paging.Page;
 import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQuery.TableListOption;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.Dataset;
 import com.google.cloud.bigquery.DatasetInfo;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
+import com.google.cloud.bigquery.TimePartitioning;
+import com.google.cloud.bigquery.ViewDefinition;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.allune.bigquery.maven.ConfigurationException;
+import io.allune.bigquery.maven.ProvisioningException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.io.FileSystemResource;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Fail.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class BigQueryServiceImplTest {
@@ -46,16 +86,23 @@ public class BigQueryServiceImplTest {
     @Captor
     private ArgumentCaptor<TableInfo> tableInfoCapture;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
-    public void shouldThrowExceptionIfBigQueryNotPresent() {
+    public void shouldThrowExceptionOnRequestsIfBigQueryNotPresent() {
+        // Given
+        BigQueryServiceImpl bigQueryService = BigQueryServiceImpl.builder().logger(new SystemStreamLog())
+                .dataset("dataset").credentialsFile("").projectId("").build();
+
         try {
-            // Given When
-            BigQueryServiceImpl.builder().logger(new SystemStreamLog()).dataset("").credentialsFile("").projectId("").build();
-            fail("Expected NullPointerException");
+            // When
+            bigQueryService.createDataset("EU");
+            fail("Expected IllegalStateException");
         } // Then
-        catch (NullPointerException ex) {
+        catch (IllegalStateException ex) {
             // Expected
-            assertThat(ex.getMessage()).isEqualTo("bigQuery is null");
+            assertThat(ex.getMessage()).isEqualTo("No BigQuery client to create dataset dataset");
         }
     }
 
@@ -231,4 +278,733 @@ public class BigQueryServiceImplTest {
         assertThat(tableInfoCapture.getValue().getTableId().getTable()).isEqualTo("test_table_1");
         assertThat(tableInfoCapture.getValue().getTableId().getDataset()).isEqualTo(expectedDataset);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldCreateTablesConcurrently() throws IOException {
+        int tableCount = 16;
+        File schemaFolder = createSchemaFolder(tableCount);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return null;
+        }).when(bigQuery).create(any(TableInfo.class));
+
+        createNativeTables(1, schemaFolder);
+        int serialMaxInFlight = maxInFlight.getAndSet(0);
+        createNativeTables(8, schemaFolder);
+
+        verify(bigQuery, times(2 * tableCount)).create(any(TableInfo.class));
+        assertThat(serialMaxInFlight).isEqualTo(1);
+        assertThat(maxInFlight.get()).isBetween(2, 8);
+    }
+
+    @Test
+    public void shouldReportAllFailedTables() throws IOException {
+        File schemaFolder = createSchemaFolder(4);
+        doThrow(new BigQueryException(409, "Already Exists"))
+                .when(bigQuery).create(argThat(new TableNameMatcher("table_1", "table_3")));
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(2)
+                .build();
+
+        try {
+            service.createNativeTables(ImmutableList.of("file:" + schemaFolder.getAbsolutePath()));
+            fail("Expected ProvisioningException");
+        } catch (ProvisioningException ex) {
+            assertThat(ex.getMessage()).isEqualTo("Failed to create tables: 2 of 4 failed (table_1, table_3)");
+            assertThat(ex.getFailures().size()).isEqualTo(2);
+            assertThat(ex.getCause()).isInstanceOf(BigQueryException.class);
+        }
+        verify(bigQuery, times(4)).create(any(TableInfo.class));
+    }
+
+    @Test
+    public void shouldReportEveryInvalidSchemaBeforeAnyRequest() throws IOException {
+        File schemaFolder = createSchemaFolder(3);
+        Files.write(new File(schemaFolder, "invalid_a.json").toPath(),
+                "[{\"name\": \"id\", \"type\": \"INTEGR\"}]".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(schemaFolder, "invalid_b.json").toPath(),
+                "[{\"name\": \"id\", \"type\": \"STRING\"}, {\"name\": \"ID\", \"type\": \"STRING\", \"mode\": \"optional\"}]"
+                        .getBytes(StandardCharsets.UTF_8));
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(2)
+                .build();
+
+        try {
+            service.plan("", "CSV", ImmutableList.of("file:" + schemaFolder.getAbsolutePath()), ImmutableList.of(),
+                    ImmutableList.of());
+            fail("Expected ConfigurationException");
+        } catch (ConfigurationException ex) {
+            assertThat(ex.getMessage()).isEqualTo("Failed to load schemas: 2 of 5 failed (invalid_a.json, invalid_b.json)"
+                    + System.lineSeparator() + "  Invalid schema invalid_a.json: id: unknown type INTEGR"
+                    + System.lineSeparator() + "  Invalid schema invalid_b.json: ID: duplicate field; "
+                    + "ID: unknown mode optional");
+        }
+        verify(bigQuery, never()).create(any(TableInfo.class));
+    }
+
+    @Test
+    public void shouldRetryTablesRejectedByRateLimits() throws IOException {
+        File schemaFolder = createSchemaFolder(4);
+        when(bigQuery.create(argThat(new TableNameMatcher("table_2"))))
+                .thenThrow(new BigQueryException(429, "Too Many Requests"))
+                .thenReturn(null);
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(2)
+                .requestRate(100, 2)
+                .retries(3, 1, 10)
+                .build();
+
+        service.createNativeTables(ImmutableList.of("file:" + schemaFolder.getAbsolutePath()));
+
+        verify(bigQuery, times(5)).create(any(TableInfo.class));
+    }
+
+    @Test
+    public void shouldCreateViewsInDependencyOrder() throws IOException {
+        File viewFolder = temporaryFolder.newFolder();
+        writeView(viewFolder, "a_top", "SELECT * FROM `$projectId.$datasetName.b_middle`");
+        writeView(viewFolder, "b_middle", "SELECT * FROM $datasetName.c_bottom");
+        writeView(viewFolder, "c_bottom", "SELECT * FROM $datasetName.some_table");
+        List<String> created = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            created.add(((TableInfo) invocation.getArguments()[0]).getTableId().getTable());
+            return null;
+        }).when(bigQuery).create(any(TableInfo.class));
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(4)
+                .build();
+
+        service.createViews(ImmutableList.of("file:" + viewFolder.getAbsolutePath()));
+
+        assertThat(created).containsExactly("c_bottom", "b_middle", "a_top");
+    }
+
+    @Test
+    public void shouldNotCreateAnyViewIfDependenciesAreCyclic() throws IOException {
+        File viewFolder = temporaryFolder.newFolder();
+        writeView(viewFolder, "view_a", "SELECT * FROM $datasetName.view_b");
+        writeView(viewFolder, "view_b", "SELECT * FROM $datasetName.view_a");
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .build();
+
+        try {
+            service.createViews(ImmutableList.of("file:" + viewFolder.getAbsolutePath()));
+            fail("Expected ConfigurationException");
+        } catch (ConfigurationException ex) {
+            assertThat(ex.getMessage()).isEqualTo("Cyclic view dependencies: view_a -> view_b -> view_a");
+        }
+        verify(bigQuery, never()).create(any(TableInfo.class));
+    }
+
+    @Test
+    public void shouldNotCreateAnyViewIfAVariableIsUndefined() throws IOException {
+        File viewFolder = temporaryFolder.newFolder();
+        writeView(viewFolder, "view_a", "SELECT * FROM $rawDataset.events");
+        writeView(viewFolder, "view_b", "SELECT * FROM $rawDataset.events WHERE env = '$environment'");
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .viewVariables(ImmutableMap.of("rawDataset", "raw"))
+                .build();
+
+        try {
+            service.createViews(ImmutableList.of("file:" + viewFolder.getAbsolutePath()));
+            fail("Expected ConfigurationException");
+        } catch (ConfigurationException ex) {
+            assertThat(ex.getMessage()).isEqualTo("Undefined variable environment at line 1 of view view_b");
+        }
+        verify(bigQuery, never()).create(any(TableInfo.class));
+    }
+
+    @Test
+    public void shouldSkipViewsWhoseDependencyFailed() throws IOException {
+        File viewFolder = temporaryFolder.newFolder();
+        writeView(viewFolder, "view_a", "SELECT 1");
+        writeView(viewFolder, "view_b", "SELECT * FROM $datasetName.view_a");
+        writeView(viewFolder, "view_c", "SELECT 2");
+        doThrow(new BigQueryException(400, "Invalid"))
+                .when(bigQuery).create(argThat(new TableNameMatcher("view_a")));
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(2)
+                .build();
+
+        try {
+            service.createViews(ImmutableList.of("file:" + viewFolder.getAbsolutePath()));
+            fail("Expected ProvisioningException");
+        } catch (ProvisioningException ex) {
+            assertThat(ex.getMessage()).isEqualTo("Failed to create views: 1 of 3 failed (view_a), "
+                    + "1 skipped because a dependency failed (view_b)");
+        }
+        verify(bigQuery, times(2)).create(any(TableInfo.class));
+    }
+
+    @Test
+    public void shouldApplyPlanWithoutReadingTheFilesAgain() throws IOException {
+        File schemaFolder = createSchemaFolder(2);
+        File viewFolder = temporaryFolder.newFolder();
+        writeView(viewFolder, "view_a", "SELECT * FROM $datasetName.table_0");
+        File planFile = new File(temporaryFolder.getRoot(), "bigquery/plan.json");
+        BigQueryService planner = BigQueryServiceImpl.builder()
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .build();
+        planner.plan("gs://data.json", "NEWLINE_DELIMITED_JSON", ImmutableList.of("file:" + schemaFolder.getAbsolutePath()),
+                ImmutableList.of(), ImmutableList.of("file:" + viewFolder.getAbsolutePath())).writeTo(planFile, "1.0");
+        FileUtils.deleteDirectory(schemaFolder);
+        FileUtils.deleteDirectory(viewFolder);
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("otherDataset")
+                .logger(mock(Log.class))
+                .build();
+
+        service.apply(ProvisioningPlan.readFrom(planFile, "1.0"));
+
+        verify(bigQuery, times(3)).create(tableInfoCapture.capture());
+        assertThat(tableInfoCapture.getAllValues()).extracting(tableInfo -> tableInfo.getTableId().getTable())
+                .containsOnly("table_0", "table_1", "view_a");
+        TableInfo view = tableInfoCapture.getAllValues().get(2);
+        assertThat(view.getTableId().getDataset()).isEqualTo("otherDataset");
+        assertThat(((ViewDefinition) view.getDefinition()).getQuery()).isEqualTo("SELECT * FROM otherDataset.table_0");
+    }
+
+    @Test
+    public void shouldOnlyApplyDifferencesWhenSyncing() throws IOException {
+        File schemaFolder = temporaryFolder.newFolder();
+        File viewFolder = temporaryFolder.newFolder();
+        String schema = IOUtils.toString(getClass().getResourceAsStream("/dir/test_table_1.json"), StandardCharsets.UTF_8);
+        Files.write(new File(schemaFolder, "unchanged.json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(schemaFolder, "changed.json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(schemaFolder, "added.json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        writeView(viewFolder, "now_a_view", "SELECT 1");
+
+        TableDefinition localDefinition = TableDefinitionLoader.loadStandardTableDefinition(
+                new FileSystemResource(new File(schemaFolder, "unchanged.json")));
+        TableDefinition changedDefinition = StandardTableDefinition.of(Schema.of(Field.of("id", LegacySQLTypeName.STRING)));
+        Table unchanged = mockTable("unchanged", localDefinition);
+        Table changed = mockTable("changed", changedDefinition);
+        Table nowAView = mockTable("now_a_view", changedDefinition);
+        Table removed = mockTable("removed", changedDefinition);
+        Page<Table> firstPage = mockPage(asList(unchanged, changed));
+        Page<Table> secondPage = mockPage(asList(nowAView, removed));
+        when(firstPage.hasNextPage()).thenReturn(true);
+        when(firstPage.getNextPage()).thenReturn(secondPage);
+        when(bigQuery.listTables("anyDataset", TableListOption.pageSize(1000))).thenReturn(firstPage);
+        when(bigQuery.getTable(TableId.of("anyDataset", "unchanged"))).thenReturn(unchanged);
+        when(bigQuery.getTable(TableId.of("anyDataset", "changed"))).thenReturn(changed);
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(4)
+                .build();
+
+        service.sync("", "CSV", ImmutableList.of("file:" + schemaFolder.getAbsolutePath()), ImmutableList.of(),
+                ImmutableList.of("file:" + viewFolder.getAbsolutePath()), true);
+
+        verify(bigQuery).listTables("anyDataset", TableListOption.pageSize(1000));
+        verify(bigQuery, times(2)).create(tableInfoCapture.capture());
+        assertThat(tableInfoCapture.getAllValues()).extracting(tableInfo -> tableInfo.getTableId().getTable())
+                .containsOnly("added", "now_a_view");
+        verify(bigQuery).update(argThat(new TableNameMatcher("changed")));
+        verify(bigQuery).delete(TableId.of("anyDataset", "now_a_view"));
+        verify(bigQuery).delete(TableId.of("anyDataset", "removed"));
+        verify(bigQuery, never()).update(argThat(new TableNameMatcher("unchanged")));
+        verify(bigQuery, never()).delete(TableId.of("anyDataset", "unchanged"));
+    }
+
+    @Test
+    public void shouldEvolveSchemasInPlaceAndReportIncompatibleChanges() throws IOException {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.of("anyDataset"));
+        inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", "evolved"), StandardTableDefinition.of(Schema.of(
+                Field.newBuilder("id", LegacySQLTypeName.STRING).setMode(Field.Mode.REQUIRED).build()))));
+        inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", "incompatible"), StandardTableDefinition.of(
+                Schema.of(Field.of("id", LegacySQLTypeName.INTEGER)))));
+        File schemaFolder = temporaryFolder.newFolder();
+        String schema = "[{\"name\": \"id\", \"type\": \"STRING\"}, {\"name\": \"name\", \"type\": \"STRING\"}]";
+        Files.write(new File(schemaFolder, "evolved.json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(schemaFolder, "incompatible.json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .build();
+
+        try {
+            service.sync("", "CSV", ImmutableList.of("file:" + schemaFolder.getAbsolutePath()), ImmutableList.of(),
+                    ImmutableList.of(), true);
+            fail("Expected ProvisioningException");
+        } catch (ProvisioningException e) {
+            assertThat(e).hasMessage("Failed to synchronise tables: 1 of 2 failed (incompatible)");
+            assertThat(e.getCause()).isInstanceOf(ConfigurationException.class)
+                    .hasMessage("Table incompatible cannot be updated without losing its data: "
+                            + "id changed from INTEGER to STRING");
+        }
+
+        Schema evolvedSchema = inMemoryBigQuery.getTable(TableId.of("anyDataset", "evolved"))
+                .<StandardTableDefinition>getDefinition().getSchema();
+        assertThat(evolvedSchema.getFields()).extracting(Field::getName).containsExactly("id", "name");
+        assertThat(evolvedSchema.getFields().get("id").getMode()).isEqualTo(Field.Mode.NULLABLE);
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "incompatible"))
+                .<StandardTableDefinition>getDefinition().getSchema().getFields()).hasSize(1);
+        assertThat(inMemoryBigQuery.getRequestCount("update table")).isEqualTo(1);
+        assertThat(inMemoryBigQuery.getRequestCount("delete table")).isZero();
+    }
+
+    @Test
+    public void shouldUpdatePartitionExpirationButNotThePartitioningColumn() throws IOException {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.of("anyDataset"));
+        Schema schema = Schema.of(Field.of("day", LegacySQLTypeName.DATE), Field.of("at", LegacySQLTypeName.TIMESTAMP));
+        for (String table : asList("expiring", "repartitioned")) {
+            inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", table), StandardTableDefinition.newBuilder()
+                    .setSchema(schema)
+                    .setTimePartitioning(TimePartitioning.newBuilder(TimePartitioning.Type.DAY).setField("day").build())
+                    .build()));
+        }
+        File schemaFolder = temporaryFolder.newFolder();
+        String fields = "\"fields\": [{\"name\": \"day\", \"type\": \"DATE\"}, "
+                + "{\"name\": \"at\", \"type\": \"TIMESTAMP\"}]";
+        Files.write(new File(schemaFolder, "expiring.json").toPath(), ("{" + fields
+                + ", \"timePartitioning\": {\"field\": \"day\", \"expirationMs\": 86400000}}")
+                .getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(schemaFolder, "repartitioned.json").toPath(), ("{" + fields
+                + ", \"timePartitioning\": {\"field\": \"at\"}}").getBytes(StandardCharsets.UTF_8));
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .build();
+
+        try {
+            service.sync("", "CSV", ImmutableList.of("file:" + schemaFolder.getAbsolutePath()), ImmutableList.of(),
+                    ImmutableList.of(), false);
+            fail("Expected ProvisioningException");
+        } catch (ProvisioningException e) {
+            assertThat(e.getCause()).isInstanceOf(ConfigurationException.class)
+                    .hasMessage("Table repartitioned cannot be updated without losing its data: "
+                            + "partitioning changed from DAY on day to DAY on at");
+        }
+
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "expiring"))
+                .<StandardTableDefinition>getDefinition().getTimePartitioning().getExpirationMs()).isEqualTo(86400000L);
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "repartitioned"))
+                .<StandardTableDefinition>getDefinition().getTimePartitioning().getField()).isEqualTo("day");
+        assertThat(inMemoryBigQuery.getRequestCount("update table")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDeleteOnlyTheRemovedTablesCarryingTheTableLabels() throws IOException {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.of("anyDataset"));
+        Schema schema = Schema.of(Field.of("id", LegacySQLTypeName.STRING));
+        for (String table : asList("removed", "removed_later")) {
+            inMemoryBigQuery.create(TableInfo.newBuilder(TableId.of("anyDataset", table),
+                    StandardTableDefinition.of(schema))
+                    .setLabels(ImmutableMap.of("managed-by", "plugin"))
+                    .build());
+        }
+        for (String table : asList("unmanaged", "unmanaged_too")) {
+            inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", table), StandardTableDefinition.of(schema)));
+        }
+        File schemaFolder = temporaryFolder.newFolder();
+        Files.write(new File(schemaFolder, "defined.json").toPath(),
+                "[{\"name\": \"id\", \"type\": \"STRING\"}]".getBytes(StandardCharsets.UTF_8));
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .tableLabels(ImmutableMap.of("managed-by", "plugin"))
+                .build();
+
+        service.sync("", "CSV", ImmutableList.of("file:" + schemaFolder.getAbsolutePath()), ImmutableList.of(),
+                ImmutableList.of(), true);
+        service.syncFiles("", "CSV", ImmutableList.of(), ImmutableList.of(), ImmutableList.of(),
+                ImmutableList.of("removed_later", "unmanaged_too"));
+
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "defined")).getLabels())
+                .containsEntry("managed-by", "plugin");
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "removed"))).isNull();
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "removed_later"))).isNull();
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "unmanaged"))).isNotNull();
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "unmanaged_too"))).isNotNull();
+    }
+
+    @Test
+    public void shouldSyncOnlyTheGivenFilesWithoutListingTheDataset() throws IOException {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.of("anyDataset"));
+        inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", "changed"), StandardTableDefinition.of(
+                Schema.of(Field.of("id", LegacySQLTypeName.STRING)))));
+        inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", "untouched"), StandardTableDefinition.of(
+                Schema.of(Field.of("id", LegacySQLTypeName.STRING)))));
+        inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", "removed"), StandardTableDefinition.of(
+                Schema.of(Field.of("id", LegacySQLTypeName.STRING)))));
+        File folder = temporaryFolder.newFolder();
+        File changed = new File(folder, "changed.json");
+        Files.write(changed.toPath(), ("[{\"name\": \"id\", \"type\": \"STRING\"}, "
+                + "{\"name\": \"name\", \"type\": \"STRING\"}]").getBytes(StandardCharsets.UTF_8));
+        writeView(folder, "added_view", "SELECT id FROM `$projectId.$datasetName.changed`");
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .build();
+
+        service.syncFiles("", "CSV", ImmutableList.of("file:" + changed.getAbsolutePath()), ImmutableList.of(),
+                ImmutableList.of("file:" + new File(folder, "added_view.sql").getAbsolutePath()),
+                ImmutableList.of("removed", "never_created"));
+
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "changed"))
+                .<StandardTableDefinition>getDefinition().getSchema().getFields()).hasSize(2);
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "added_view")).<TableDefinition>getDefinition())
+                .isInstanceOf(ViewDefinition.class);
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "untouched"))).isNotNull();
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "removed"))).isNull();
+        assertThat(inMemoryBigQuery.getRequestCount("list tables")).isZero();
+        assertThat(inMemoryBigQuery.getRequestCount("update table")).isEqualTo(1);
+        assertThat(inMemoryBigQuery.getRequestCount("create table")).isEqualTo(4);
+        assertThat(inMemoryBigQuery.getRequestCount("delete table")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldReadTheGivenFilesAgainOnEverySync() throws IOException {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.of("anyDataset"));
+        File table = new File(temporaryFolder.newFolder(), "table.json");
+        List<String> files = ImmutableList.of("file:" + table.getAbsolutePath());
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .build();
+        // the file is missing while an editor writes it again
+        service.syncFiles("", "CSV", files, ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
+
+        Files.write(table.toPath(), "[{\"name\": \"id\", \"type\": \"STRING\"}]".getBytes(StandardCharsets.UTF_8));
+        service.syncFiles("", "CSV", files, ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
+
+        assertThat(inMemoryBigQuery.getTable(TableId.of("anyDataset", "table"))
+                .<StandardTableDefinition>getDefinition().getSchema().getFields()).hasSize(1);
+    }
+
+    @Test
+    public void shouldRecreateDatasetWithItsMetadataAboveThreshold() {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.newBuilder("anyDataset")
+                .setLocation("EU")
+                .setDescription("Events")
+                .setDefaultTableLifetime(86400000L)
+                .setLabels(ImmutableMap.of("team", "data"))
+                .build());
+        for (int i = 0; i < 5; i++) {
+            inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", "table_" + i),
+                    StandardTableDefinition.of(Schema.of(Field.of("id", LegacySQLTypeName.STRING)))));
+        }
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .build();
+
+        service.deleteTables(TableSelection.all(), 4);
+
+        Dataset dataset = inMemoryBigQuery.getDataset("anyDataset");
+        assertThat(inMemoryBigQuery.getTableNames("anyDataset")).isEmpty();
+        assertThat(dataset.getLocation()).isEqualTo("EU");
+        assertThat(dataset.getDescription()).isEqualTo("Events");
+        assertThat(dataset.getDefaultTableLifetime()).isEqualTo(86400000L);
+        assertThat(dataset.getLabels()).containsEntry("team", "data");
+        assertThat(inMemoryBigQuery.getRequestCount("delete table")).isZero();
+        assertThat(inMemoryBigQuery.getRequestCount("delete dataset")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDeleteTablesOneByOneUpToThreshold() {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.of("anyDataset"));
+        for (int i = 0; i < 5; i++) {
+            inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", "table_" + i),
+                    StandardTableDefinition.of(Schema.of(Field.of("id", LegacySQLTypeName.STRING)))));
+        }
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(2)
+                .build();
+
+        service.deleteTables(TableSelection.all(), 5);
+
+        assertThat(inMemoryBigQuery.getTableNames("anyDataset")).isEmpty();
+        assertThat(inMemoryBigQuery.getRequestCount("delete table")).isEqualTo(5);
+        assertThat(inMemoryBigQuery.getRequestCount("delete dataset")).isZero();
+        // the tables counted against the threshold are deleted without listing them again
+        assertThat(inMemoryBigQuery.getRequestCount("list tables")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldOnlyDeleteSelectedTablesAndLabelCreatedOnes() throws IOException {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.of("anyDataset"));
+        inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", "unmanaged"),
+                StandardTableDefinition.of(Schema.of(Field.of("id", LegacySQLTypeName.STRING)))));
+        File schemaFolder = temporaryFolder.newFolder();
+        String schema = "[{\"name\": \"id\", \"type\": \"STRING\"}]";
+        Files.write(new File(schemaFolder, "managed_a.json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(schemaFolder, "managed_b.json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(2)
+                .tableLabels(ImmutableMap.of("managed-by", "bigquery-maven-plugin"))
+                .build();
+        service.createNativeTables(ImmutableList.of("file:" + schemaFolder.getAbsolutePath()));
+        inMemoryBigQuery.create(TableInfo.newBuilder(TableId.of("anyDataset", "managed_c"),
+                StandardTableDefinition.of(Schema.of(Field.of("id", LegacySQLTypeName.STRING))))
+                .setLabels(ImmutableMap.of("managed-by", "someone-else"))
+                .build());
+        long getRequests = inMemoryBigQuery.getRequestCount("get table");
+
+        service.deleteTables(TableSelection.builder()
+                .namePatterns(ImmutableList.of("managed_*"))
+                .labels(ImmutableMap.of("managed-by", "bigquery-maven-plugin"))
+                .build(), 1);
+
+        assertThat(inMemoryBigQuery.getTableNames("anyDataset")).containsOnly("unmanaged", "managed_c");
+        assertThat(inMemoryBigQuery.getRequestCount("get table")).isEqualTo(getRequests);
+        assertThat(inMemoryBigQuery.getRequestCount("delete dataset")).isZero();
+
+        File otherSchemaFolder = temporaryFolder.newFolder();
+        Files.write(new File(otherSchemaFolder, "managed_c.json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        service.deleteTables(TableSelection.builder()
+                .locations(ImmutableList.of("file:" + otherSchemaFolder.getAbsolutePath()))
+                .build(), 0);
+
+        assertThat(inMemoryBigQuery.getTableNames("anyDataset")).containsOnly("unmanaged");
+    }
+
+    @Test
+    public void shouldListTheDatasetOnceForASelectiveDelete() {
+        InMemoryBigQuery inMemoryBigQuery = new InMemoryBigQuery("project");
+        inMemoryBigQuery.create(DatasetInfo.of("anyDataset"));
+        for (String name : new String[]{"managed_a", "managed_b", "unmanaged_a", "unmanaged_b"}) {
+            inMemoryBigQuery.create(TableInfo.of(TableId.of("anyDataset", name),
+                    StandardTableDefinition.of(Schema.of(Field.of("id", LegacySQLTypeName.STRING)))));
+        }
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(inMemoryBigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(2)
+                .build();
+
+        service.deleteTables(TableSelection.builder().namePatterns(ImmutableList.of("managed_*")).build(), 0);
+
+        assertThat(inMemoryBigQuery.getTableNames("anyDataset")).containsOnly("unmanaged_a", "unmanaged_b");
+        assertThat(inMemoryBigQuery.getRequestCount("list tables")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDeleteAllPagesOfTablesConcurrently() {
+        List<Table> firstTables = new ArrayList<>();
+        List<Table> secondTables = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            (i < 10 ? firstTables : secondTables).add(mockTable("table_" + i, null));
+        }
+        Page<Table> firstPage = mockPage(firstTables);
+        Page<Table> secondPage = mockPage(secondTables);
+        when(firstPage.hasNextPage()).thenReturn(true);
+        when(firstPage.getNextPage()).thenReturn(secondPage);
+        Page<Table> emptyPage = mockPage(ImmutableList.of());
+        Dataset dataset = mock(Dataset.class);
+        when(bigQuery.getDataset("anyDataset")).thenReturn(dataset);
+        when(bigQuery.listTables("anyDataset", TableListOption.pageSize(1000))).thenReturn(firstPage);
+        when(bigQuery.listTables("anyDataset", TableListOption.pageSize(1))).thenReturn(emptyPage);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(bigQuery.delete(any(TableId.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return true;
+        });
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(4)
+                .build();
+
+        service.deleteTables();
+
+        verify(bigQuery, times(20)).delete(any(TableId.class));
+        verify(bigQuery).delete(TableId.of("anyDataset", "table_19"));
+        verify(firstPage).getNextPage();
+        assertThat(maxInFlight.get()).isGreaterThan(1).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    public void shouldNotCountTablesAlreadyGoneAsDeleted() {
+        Page<Table> page = mockPage(ImmutableList.of(mockTable("table_0", null), mockTable("gone", null),
+                mockTable("table_1", null)));
+        Page<Table> emptyPage = mockPage(ImmutableList.of());
+        Dataset dataset = mock(Dataset.class);
+        when(bigQuery.getDataset("anyDataset")).thenReturn(dataset);
+        when(bigQuery.listTables("anyDataset", TableListOption.pageSize(1000))).thenReturn(page);
+        when(bigQuery.listTables("anyDataset", TableListOption.pageSize(1))).thenReturn(emptyPage);
+        when(bigQuery.delete(any(TableId.class))).thenReturn(true);
+        when(bigQuery.delete(TableId.of("anyDataset", "gone"))).thenReturn(false);
+        Log log = mock(Log.class);
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(log)
+                .parallelism(2)
+                .build();
+
+        service.deleteTables();
+
+        verify(bigQuery, times(3)).delete(any(TableId.class));
+        verify(log).info(startsWith("Deleted 2 tables from anyDataset"));
+    }
+
+    @Test
+    public void shouldNotDeleteTablesOfMissingDataset() {
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .build();
+
+        service.deleteTables();
+
+        verify(bigQuery, never()).delete(any(TableId.class));
+    }
+
+    private static Table mockTable(String name, TableDefinition definition) {
+        Table table = mock(Table.class);
+        when(table.getTableId()).thenReturn(TableId.of("anyDataset", name));
+        when(table.<TableDefinition>getDefinition()).thenReturn(definition);
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Page<Table> mockPage(List<Table> tables) {
+        Page<Table> page = mock(Page.class);
+        when(page.getValues()).thenReturn(tables);
+        return page;
+    }
+
+    private void writeView(File folder, String name, String query) throws IOException {
+        Files.write(new File(folder, name + ".sql").toPath(), query.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void createNativeTables(int parallelism, File schemaFolder) {
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("")
+                .credentialsFile("")
+                .dataset("anyDataset")
+                .logger(mock(Log.class))
+                .parallelism(parallelism)
+                .build();
+
+        service.createNativeTables(ImmutableList.of("file:" + schemaFolder.getAbsolutePath()));
+    }
+
+    private File createSchemaFolder(int tableCount) throws IOException {
+        String schema = IOUtils.toString(getClass().getResourceAsStream("/dir/test_table_1.json"), StandardCharsets.UTF_8);
+        File folder = temporaryFolder.newFolder();
+        for (int i = 0; i < tableCount; i++) {
+            Files.write(new File(folder, "table_" + i + ".json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        }
+        return folder;
+    }
+
+    private static class TableNameMatcher extends ArgumentMatcher<TableInfo> {
+
+        private final List<String> tableNames;
+
+        private TableNameMatcher(String... tableNames) {
+            this.tableNames = asList(tableNames);
+        }
+
+        @Override
+        public boolean matches(Object argument) {
+            return argument instanceof TableInfo && tableNames.contains(((TableInfo) argument).getTableId().getTable());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.common.collect.ImmutableMap;
+import io.allune.bigquery.maven.ConfigurationException;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Fail.fail;
+
+public class DependencyGraphTest {
+
+    @Test
+    public void shouldFindQualifiedReferences() {
+        List<List<String>> references = DependencyGraph.findReferences(
+                "SELECT a.id FROM `project.dataset.view_a` a\n" +
+                        "JOIN dataset.view_b b ON a.id = b.id, [project:dataset.view_c]\n" +
+                        "-- FROM dataset.commented_out\n" +
+                        "WHERE a.name != 'dataset.literal'");
+
+        assertThat(references).contains(
+                asList("project", "dataset", "view_a"),
+                asList("dataset", "view_b"),
+                asList("project", "dataset", "view_c"));
+        assertThat(references).doesNotContain(asList("dataset", "commented_out"), asList("dataset", "literal"));
+    }
+
+    @Test
+    public void shouldOrderViewsByDependency() {
+        DependencyGraph graph = DependencyGraph.forViews(ImmutableMap.of(
+                "view_c", "SELECT * FROM `project.dataset.view_b`",
+                "view_b", "SELECT * FROM dataset.view_a",
+                "view_a", "SELECT * FROM dataset.table",
+                "view_d", "SELECT * FROM other_dataset.view_a"), "project", "dataset");
+
+        assertThat(graph.getOrder()).containsExactly("view_a", "view_d", "view_b", "view_c");
+        assertThat(graph.getDependencies("view_c")).containsExactly("view_b");
+        assertThat(graph.getDependencies("view_d")).isEmpty();
+    }
+
+    @Test
+    public void shouldIgnoreViewsOfOtherProjects() {
+        DependencyGraph graph = DependencyGraph.forViews(ImmutableMap.of(
+                "view_b", "SELECT * FROM `other.dataset.view_a`",
+                "view_a", "SELECT 1"), "project", "dataset");
+
+        assertThat(graph.getDependencies("view_b")).isEmpty();
+    }
+
+    @Test
+    public void shouldRejectCyclicDependencies() {
+        try {
+            DependencyGraph.forViews(ImmutableMap.of(
+                    "view_a", "SELECT * FROM dataset.view_c",
+                    "view_b", "SELECT * FROM dataset.view_a",
+                    "view_c", "SELECT * FROM dataset.view_b",
+                    "view_d", "SELECT * FROM dataset.view_c"), "project", "dataset");
+            fail("Expected ConfigurationException");
+        } catch (ConfigurationException ex) {
+            assertThat(ex.getMessage()).isEqualTo("Cyclic view dependencies: view_a -> view_c -> view_b -> view_a");
+        }
+    }
+}
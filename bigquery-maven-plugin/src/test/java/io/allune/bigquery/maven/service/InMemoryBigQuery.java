@@ -0,0 +1,667 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.api.gax.paging.Page;
+import com.google.api.services.bigquery.model.DatasetReference;
+import com.google.api.services.bigquery.model.TableReference;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.BigQueryOptions;
+import com.google.cloud.bigquery.Dataset;
+import com.google.cloud.bigquery.DatasetId;
+import com.google.cloud.bigquery.DatasetInfo;
+import com.google.cloud.bigquery.InsertAllRequest;
+import com.google.cloud.bigquery.InsertAllResponse;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobId;
+import com.google.cloud.bigquery.JobInfo;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.google.cloud.bigquery.QueryResponse;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableDataWriteChannel;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableInfo;
+import com.google.cloud.bigquery.TableResult;
+import com.google.cloud.bigquery.ViewDefinition;
+import com.google.cloud.bigquery.WriteChannelConfiguration;
+import com.google.cloud.bigquery.spi.v2.BigQueryRpc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.lang.Thread.currentThread;
+
+/**
+ * An in-memory {@link BigQuery} holding the datasets, tables and views of a single project, for
+ * exercising provisioning at scale without network access. Every request can be slowed down by a
+ * random latency and failed by rate limit errors and transient server errors, like the real service.
+ * <p>
+ * Like BigQuery, creating a table in a missing dataset, a table that already exists or a view
+ * referencing a missing table of a known dataset fails, deleting a dataset that still holds tables
+ * fails unless its contents are deleted, and listings are paged, omitting the schema of the tables.
+ * Jobs, queries and table data are not supported.
+ */
+public class InMemoryBigQuery implements BigQuery {
+
+    private static final long DEFAULT_PAGE_SIZE = 50;
+
+    private static final Method TABLE_INFO_TO_PB = method(TableInfo.class, "toPb");
+    private static final Method TABLE_FROM_PB =
+            method(Table.class, "fromPb", BigQuery.class, com.google.api.services.bigquery.model.Table.class);
+    private static final Method DATASET_INFO_TO_PB = method(DatasetInfo.class, "toPb");
+    private static final Method DATASET_FROM_PB =
+            method(Dataset.class, "fromPb", BigQuery.class, com.google.api.services.bigquery.model.Dataset.class);
+    private static final Method OPTION_RPC_OPTION = method(TableListOption.class.getSuperclass(), "getRpcOption");
+    private static final Method OPTION_VALUE = method(TableListOption.class.getSuperclass(), "getValue");
+
+    private final String projectId;
+    private final BigQueryOptions options;
+    private final ConcurrentMap<String, DatasetState> datasets = new ConcurrentHashMap<>();
+    private final Random random = new Random();
+
+    private volatile long minLatencyMillis;
+    private volatile long maxLatencyMillis;
+    private volatile double rateLimitErrorRate;
+    private volatile double transientFailureRate;
+    private volatile double requestsPerSecond;
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> requestsByMethod = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> pendingFailures = new ConcurrentHashMap<>();
+
+    public InMemoryBigQuery(String projectId) {
+        this.projectId = projectId;
+        this.options = BigQueryOptions.newBuilder()
+                .setProjectId(projectId)
+                .setCredentials(NoCredentials.getInstance())
+                .build();
+    }
+
+    /**
+     * Delays every request by a random latency between the given bounds, in milliseconds.
+     */
+    public InMemoryBigQuery latency(long minMillis, long maxMillis) {
+        this.minLatencyMillis = minMillis;
+        this.maxLatencyMillis = Math.max(minMillis, maxMillis);
+        return this;
+    }
+
+    /**
+     * Fails the given fraction of the requests with a {@code rateLimitExceeded} error.
+     */
+    public InMemoryBigQuery rateLimitErrors(double rate) {
+        this.rateLimitErrorRate = rate;
+        return this;
+    }
+
+    /**
+     * Fails the given fraction of the requests with a {@code backendError}, as BigQuery does on
+     * transient server failures.
+     */
+    public InMemoryBigQuery transientFailures(double rate) {
+        this.transientFailureRate = rate;
+        return this;
+    }
+
+    /**
+     * Fails the next requests of the method, such as {@code list datasets}, with a {@code backendError}.
+     */
+    public InMemoryBigQuery failNext(String method, int count) {
+        pendingFailures.computeIfAbsent(method, name -> new AtomicLong()).addAndGet(count);
+        return this;
+    }
+
+    /**
+     * Fails the requests exceeding the given rate, allowing bursts of one second of requests, with a
+     * {@code rateLimitExceeded} error. A rate of zero, the default, means no limit.
+     */
+    public synchronized InMemoryBigQuery requestRate(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.tokens = requestsPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+        return this;
+    }
+
+    /**
+     * Seeds the random latencies and failures, for reproducible runs.
+     */
+    public InMemoryBigQuery seed(long seed) {
+        random.setSeed(seed);
+        return this;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getRequestCount(String method) {
+        AtomicLong count = requestsByMethod.get(method);
+        return count != null ? count.get() : 0;
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * Returns the names of the tables and views of the dataset, without making a request.
+     */
+    public List<String> getTableNames(String dataset) {
+        DatasetState state = datasets.get(dataset);
+        return state != null ? new ArrayList<>(state.tables.keySet()) : Collections.emptyList();
+    }
+
+    /**
+     * Returns the table or view of the dataset, with its schema, without making a request.
+     */
+    public TableInfo getTableInfo(String dataset, String table) {
+        DatasetState state = datasets.get(dataset);
+        com.google.api.services.bigquery.model.Table tablePb = state != null ? state.tables.get(table) : null;
+        return tablePb != null ? toTable(tablePb) : null;
+    }
+
+    @Override
+    public BigQueryOptions getOptions() {
+        return options;
+    }
+
+    @Override
+    public Dataset create(DatasetInfo datasetInfo, DatasetOption... options) {
+        request("create dataset");
+        String dataset = datasetInfo.getDatasetId().getDataset();
+        com.google.api.services.bigquery.model.Dataset datasetPb = invoke(DATASET_INFO_TO_PB, datasetInfo);
+        long now = System.currentTimeMillis();
+        datasetPb.setDatasetReference(new DatasetReference().setProjectId(projectId).setDatasetId(dataset))
+                .setCreationTime(now)
+                .setLastModifiedTime(now);
+        if (datasets.putIfAbsent(dataset, new DatasetState(datasetPb)) != null) {
+            throw error(409, "duplicate", "Already Exists: Dataset " + projectId + ":" + dataset);
+        }
+        return toDataset(datasetPb);
+    }
+
+    @Override
+    public Table create(TableInfo tableInfo, TableOption... options) {
+        request("create table");
+        TableId tableId = tableInfo.getTableId();
+        DatasetState state = dataset(tableId.getDataset());
+        checkReferences(tableInfo.getDefinition());
+        com.google.api.services.bigquery.model.Table tablePb = toPb(tableInfo);
+        if (state.tables.putIfAbsent(tableId.getTable(), tablePb) != null) {
+            throw error(409, "duplicate", "Already Exists: Table " + name(tableId));
+        }
+        return toTable(tablePb);
+    }
+
+    @Override
+    public Dataset getDataset(String datasetId, DatasetOption... options) {
+        request("get dataset");
+        DatasetState state = datasets.get(datasetId);
+        return state != null ? toDataset(state.datasetPb) : null;
+    }
+
+    @Override
+    public Dataset getDataset(DatasetId datasetId, DatasetOption... options) {
+        return getDataset(datasetId.getDataset(), options);
+    }
+
+    @Override
+    public Page<Dataset> listDatasets(DatasetListOption... options) {
+        return listDatasets(projectId, options);
+    }
+
+    @Override
+    public Page<Dataset> listDatasets(String projectId, DatasetListOption... options) {
+        request("list datasets");
+        NavigableMap<String, DatasetState> sorted = new ConcurrentSkipListMap<>(datasets);
+        return page(sorted, options, state -> toDataset(state.datasetPb),
+                (pageSize, pageToken) -> listDatasets(projectId, DatasetListOption.pageSize(pageSize),
+                        DatasetListOption.pageToken(pageToken)));
+    }
+
+    @Override
+    public boolean delete(String datasetId, DatasetDeleteOption... options) {
+        request("delete dataset");
+        DatasetState state = datasets.get(datasetId);
+        if (state == null) {
+            return false;
+        }
+        if (!state.tables.isEmpty() && option(options, BigQueryRpc.Option.DELETE_CONTENTS) == null) {
+            throw error(400, "resourceInUse", "Dataset " + projectId + ":" + datasetId + " is still in use");
+        }
+        return datasets.remove(datasetId, state);
+    }
+
+    @Override
+    public boolean delete(DatasetId datasetId, DatasetDeleteOption... options) {
+        return delete(datasetId.getDataset(), options);
+    }
+
+    @Override
+    public boolean delete(String datasetId, String tableId) {
+        return delete(TableId.of(datasetId, tableId));
+    }
+
+    @Override
+    public boolean delete(TableId tableId) {
+        request("delete table");
+        DatasetState state = datasets.get(tableId.getDataset());
+        return state != null && state.tables.remove(tableId.getTable()) != null;
+    }
+
+    @Override
+    public Dataset update(DatasetInfo datasetInfo, DatasetOption... options) {
+        request("update dataset");
+        String dataset = datasetInfo.getDatasetId().getDataset();
+        DatasetState state = dataset(dataset);
+        com.google.api.services.bigquery.model.Dataset datasetPb = invoke(DATASET_INFO_TO_PB, datasetInfo);
+        datasetPb.setDatasetReference(new DatasetReference().setProjectId(projectId).setDatasetId(dataset))
+                .setCreationTime(state.datasetPb.getCreationTime())
+                .setLastModifiedTime(System.currentTimeMillis());
+        state.datasetPb = datasetPb;
+        return toDataset(datasetPb);
+    }
+
+    @Override
+    public Table update(TableInfo tableInfo, TableOption... options) {
+        request("update table");
+        TableId tableId = tableInfo.getTableId();
+        DatasetState state = dataset(tableId.getDataset());
+        checkReferences(tableInfo.getDefinition());
+        com.google.api.services.bigquery.model.Table tablePb = toPb(tableInfo);
+        if (state.tables.replace(tableId.getTable(), tablePb) == null) {
+            throw error(404, "notFound", "Not found: Table " + name(tableId));
+        }
+        return toTable(tablePb);
+    }
+
+    @Override
+    public Table getTable(String datasetId, String tableId, TableOption... options) {
+        return getTable(TableId.of(datasetId, tableId), options);
+    }
+
+    @Override
+    public Table getTable(TableId tableId, TableOption... options) {
+        request("get table");
+        DatasetState state = datasets.get(tableId.getDataset());
+        com.google.api.services.bigquery.model.Table tablePb = state != null ? state.tables.get(tableId.getTable()) : null;
+        return tablePb != null ? toTable(tablePb) : null;
+    }
+
+    @Override
+    public Page<Table> listTables(String datasetId, TableListOption... options) {
+        request("list tables");
+        DatasetState state = dataset(datasetId);
+        return page(state.tables, options, tablePb -> toTable(withoutSchema(tablePb)),
+                (pageSize, pageToken) -> listTables(datasetId, TableListOption.pageSize(pageSize),
+                        TableListOption.pageToken(pageToken)));
+    }
+
+    @Override
+    public Page<Table> listTables(DatasetId datasetId, TableListOption... options) {
+        return listTables(datasetId.getDataset(), options);
+    }
+
+    @Override
+    public Job create(JobInfo jobInfo, JobOption... options) {
+        throw new UnsupportedOperationException("Jobs are not supported");
+    }
+
+    @Override
+    public InsertAllResponse insertAll(InsertAllRequest request) {
+        throw new UnsupportedOperationException("Table data is not supported");
+    }
+
+    @Override
+    public TableResult listTableData(String datasetId, String tableId, TableDataListOption... options) {
+        throw new UnsupportedOperationException("Table data is not supported");
+    }
+
+    @Override
+    public TableResult listTableData(TableId tableId, TableDataListOption... options) {
+        throw new UnsupportedOperationException("Table data is not supported");
+    }
+
+    @Override
+    public TableResult listTableData(String datasetId, String tableId, Schema schema, TableDataListOption... options) {
+        throw new UnsupportedOperationException("Table data is not supported");
+    }
+
+    @Override
+    public TableResult listTableData(TableId tableId, Schema schema, TableDataListOption... options) {
+        throw new UnsupportedOperationException("Table data is not supported");
+    }
+
+    @Override
+    public Job getJob(String jobId, JobOption... options) {
+        throw new UnsupportedOperationException("Jobs are not supported");
+    }
+
+    @Override
+    public Job getJob(JobId jobId, JobOption... options) {
+        throw new UnsupportedOperationException("Jobs are not supported");
+    }
+
+    @Override
+    public Page<Job> listJobs(JobListOption... options) {
+        throw new UnsupportedOperationException("Jobs are not supported");
+    }
+
+    @Override
+    public boolean cancel(String jobId) {
+        throw new UnsupportedOperationException("Jobs are not supported");
+    }
+
+    @Override
+    public boolean cancel(JobId jobId) {
+        throw new UnsupportedOperationException("Jobs are not supported");
+    }
+
+    @Override
+    public TableResult query(QueryJobConfiguration configuration, JobOption... options) {
+        throw new UnsupportedOperationException("Queries are not supported");
+    }
+
+    @Override
+    public TableResult query(QueryJobConfiguration configuration, JobId jobId, JobOption... options) {
+        throw new UnsupportedOperationException("Queries are not supported");
+    }
+
+    @Override
+    public QueryResponse getQueryResults(JobId jobId, QueryResultsOption... options) {
+        throw new UnsupportedOperationException("Queries are not supported");
+    }
+
+    @Override
+    public TableDataWriteChannel writer(WriteChannelConfiguration writeChannelConfiguration) {
+        throw new UnsupportedOperationException("Table data is not supported");
+    }
+
+    @Override
+    public TableDataWriteChannel writer(JobId jobId, WriteChannelConfiguration writeChannelConfiguration) {
+        throw new UnsupportedOperationException("Table data is not supported");
+    }
+
+    /**
+     * Counts the request, waits for its latency and fails it if a rate limit or failure is injected.
+     */
+    private void request(String method) {
+        requests.incrementAndGet();
+        requestsByMethod.computeIfAbsent(method, name -> new AtomicLong()).incrementAndGet();
+        long latency = minLatencyMillis + (maxLatencyMillis > minLatencyMillis
+                ? (long) (random.nextDouble() * (maxLatencyMillis - minLatencyMillis)) : 0);
+        if (latency > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latency);
+            } catch (InterruptedException e) {
+                currentThread().interrupt();
+                throw new BigQueryException(BigQueryException.UNKNOWN_CODE, "Interrupted during " + method, e);
+            }
+        }
+        if (!acquire() || random.nextDouble() < rateLimitErrorRate) {
+            failures.incrementAndGet();
+            throw error(429, "rateLimitExceeded", "Exceeded rate limits: too many api requests per user per method");
+        }
+        AtomicLong pending = pendingFailures.get(method);
+        if (random.nextDouble() < transientFailureRate
+                || pending != null && pending.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+            failures.incrementAndGet();
+            throw error(503, "backendError", "Error encountered during execution. Retrying may solve the problem.");
+        }
+    }
+
+    private synchronized boolean acquire() {
+        if (requestsPerSecond <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(requestsPerSecond,
+                tokens + (now - lastRefillNanos) * requestsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private DatasetState dataset(String dataset) {
+        DatasetState state = datasets.get(dataset);
+        if (state == null) {
+            throw error(404, "notFound", "Not found: Dataset " + projectId + ":" + dataset);
+        }
+        return state;
+    }
+
+    /**
+     * Fails like BigQuery when a view references a missing table of an existing dataset of the project.
+     */
+    private void checkReferences(TableDefinition definition) {
+        if (!(definition instanceof ViewDefinition)) {
+            return;
+        }
+        for (List<String> reference : DependencyGraph.findReferences(((ViewDefinition) definition).getQuery())) {
+            int size = reference.size();
+            if (size < 2 || size > 3 || size == 3 && !reference.get(0).equals(projectId)) {
+                continue;
+            }
+            DatasetState state = datasets.get(reference.get(size - 2));
+            if (state != null && !state.tables.containsKey(reference.get(size - 1))) {
+                throw error(404, "notFound", "Not found: Table " + projectId + ":" + reference.get(size - 2) + "."
+                        + reference.get(size - 1));
+            }
+        }
+    }
+
+    private com.google.api.services.bigquery.model.Table toPb(TableInfo tableInfo) {
+        TableId tableId = tableInfo.getTableId();
+        com.google.api.services.bigquery.model.Table tablePb = invoke(TABLE_INFO_TO_PB, tableInfo);
+        long now = System.currentTimeMillis();
+        return tablePb.setTableReference(new TableReference()
+                .setProjectId(projectId)
+                .setDatasetId(tableId.getDataset())
+                .setTableId(tableId.getTable()))
+                .setId(name(tableId))
+                .setCreationTime(now)
+                .setLastModifiedTime(BigInteger.valueOf(now));
+    }
+
+    /**
+     * Returns the table as listed by BigQuery, which omits the schema of native tables.
+     */
+    private static com.google.api.services.bigquery.model.Table withoutSchema(
+            com.google.api.services.bigquery.model.Table tablePb) {
+        return new com.google.api.services.bigquery.model.Table()
+                .setTableReference(tablePb.getTableReference())
+                .setId(tablePb.getId())
+                .setType(tablePb.getType())
+                .setView(tablePb.getView())
+                .setExternalDataConfiguration(tablePb.getExternalDataConfiguration())
+                .setTimePartitioning(tablePb.getTimePartitioning())
+                .setLabels(tablePb.getLabels())
+                .setCreationTime(tablePb.getCreationTime())
+                .setExpirationTime(tablePb.getExpirationTime());
+    }
+
+    private Table toTable(com.google.api.services.bigquery.model.Table tablePb) {
+        return invoke(TABLE_FROM_PB, null, this, tablePb);
+    }
+
+    private Dataset toDataset(com.google.api.services.bigquery.model.Dataset datasetPb) {
+        return invoke(DATASET_FROM_PB, null, this, datasetPb);
+    }
+
+    private String name(TableId tableId) {
+        return projectId + ":" + tableId.getDataset() + "." + tableId.getTable();
+    }
+
+    /**
+     * Returns the page of values following the page token, in name order.
+     */
+    private static <V, T> Page<T> page(NavigableMap<String, V> values, Object[] options, Function<V, T> converter,
+                                       NextPage<T> nextPage) {
+        Object pageSizeOption = option(options, BigQueryRpc.Option.MAX_RESULTS);
+        Object pageToken = option(options, BigQueryRpc.Option.PAGE_TOKEN);
+        long pageSize = pageSizeOption != null ? ((Number) pageSizeOption).longValue() : DEFAULT_PAGE_SIZE;
+        NavigableMap<String, V> remaining = pageToken != null ? values.tailMap((String) pageToken, false) : values;
+        List<T> page = new ArrayList<>();
+        String lastKey = null;
+        for (Map.Entry<String, V> entry : remaining.entrySet()) {
+            if (page.size() == pageSize) {
+                return new InMemoryPage<>(page, lastKey, nextPage, pageSize);
+            }
+            page.add(converter.apply(entry.getValue()));
+            lastKey = entry.getKey();
+        }
+        return new InMemoryPage<>(page, null, nextPage, pageSize);
+    }
+
+    private static Object option(Object[] options, BigQueryRpc.Option rpcOption) {
+        for (Object option : options) {
+            if (invoke(OPTION_RPC_OPTION, option) == rpcOption) {
+                return invoke(OPTION_VALUE, option);
+            }
+        }
+        return null;
+    }
+
+    private static BigQueryException error(int code, String reason, String message) {
+        return new BigQueryException(code, message, new BigQueryError(reason, null, message));
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return method;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Unsupported version of google-cloud-bigquery", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T invoke(Method method, Object target, Object... arguments) {
+        try {
+            return (T) method.invoke(target, arguments);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class DatasetState {
+
+        private final NavigableMap<String, com.google.api.services.bigquery.model.Table> tables =
+                new ConcurrentSkipListMap<>();
+        private volatile com.google.api.services.bigquery.model.Dataset datasetPb;
+
+        private DatasetState(com.google.api.services.bigquery.model.Dataset datasetPb) {
+            this.datasetPb = datasetPb;
+        }
+    }
+
+    private interface NextPage<T> {
+
+        Page<T> fetch(long pageSize, String pageToken);
+    }
+
+    private static final class InMemoryPage<T> implements Page<T> {
+
+        private final List<T> values;
+        private final String nextPageToken;
+        private final NextPage<T> nextPage;
+        private final long pageSize;
+
+        private InMemoryPage(List<T> values, String nextPageToken, NextPage<T> nextPage, long pageSize) {
+            this.values = values;
+            this.nextPageToken = nextPageToken;
+            this.nextPage = nextPage;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean hasNextPage() {
+            return nextPageToken != null;
+        }
+
+        @Override
+        public String getNextPageToken() {
+            return nextPageToken;
+        }
+
+        @Override
+        public Page<T> getNextPage() {
+            return hasNextPage() ? nextPage.fetch(pageSize, nextPageToken) : null;
+        }
+
+        @Override
+        public Iterable<T> iterateAll() {
+            return () -> new Iterator<T>() {
+
+                private Page<T> page = InMemoryPage.this;
+                private Iterator<T> iterator = values.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!iterator.hasNext() && page.hasNextPage()) {
+                        page = page.getNextPage();
+                        iterator = page.getValues().iterator();
+                    }
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return iterator.next();
+                }
+            };
+        }
+
+        @Override
+        public Iterable<T> getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.api.gax.paging.Page;
+import com.google.cloud.bigquery.BigQuery.DatasetDeleteOption;
+import com.google.cloud.bigquery.BigQuery.TableListOption;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.DatasetInfo;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableInfo;
+import com.google.cloud.bigquery.ViewDefinition;
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Fail.fail;
+import static org.mockito.Mockito.mock;
+
+public class InMemoryBigQueryTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final InMemoryBigQuery bigQuery = new InMemoryBigQuery("project");
+
+    @Test
+    public void shouldListTablesPageByPageWithoutSchema() {
+        // Given
+        bigQuery.create(DatasetInfo.of("dataset"));
+        for (int i = 0; i < 5; i++) {
+            bigQuery.create(table("table_" + i));
+        }
+
+        // When
+        Page<Table> firstPage = bigQuery.listTables("dataset", TableListOption.pageSize(2));
+
+        // Then
+        assertThat(firstPage.getValues()).hasSize(2);
+        assertThat(firstPage.getNextPage().getNextPage().getValues()).hasSize(1);
+        List<String> names = new ArrayList<>();
+        firstPage.iterateAll().forEach(table -> {
+            assertThat(((StandardTableDefinition) table.getDefinition()).getSchema()).isNull();
+            names.add(table.getTableId().getTable());
+        });
+        assertThat(names).containsExactly("table_0", "table_1", "table_2", "table_3", "table_4");
+        assertThat(bigQuery.getTable(TableId.of("dataset", "table_0")).<StandardTableDefinition>getDefinition()
+                .getSchema().getFields()).hasSize(1);
+        assertThat(bigQuery.getRequestCount("list tables")).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldFailLikeBigQuery() {
+        // Given
+        bigQuery.create(DatasetInfo.of("dataset"));
+        bigQuery.create(table("table"));
+
+        // When Then
+        assertError(() -> bigQuery.create(table("table")), 409, "duplicate");
+        assertError(() -> bigQuery.create(TableInfo.of(TableId.of("missing", "table"),
+                StandardTableDefinition.of(Schema.of()))), 404, "notFound");
+        assertError(() -> bigQuery.create(TableInfo.of(TableId.of("dataset", "view"),
+                ViewDefinition.of("SELECT * FROM dataset.missing"))), 404, "notFound");
+        assertError(() -> bigQuery.delete("dataset"), 400, "resourceInUse");
+        assertThat(bigQuery.delete("dataset", DatasetDeleteOption.deleteContents())).isTrue();
+        assertThat(bigQuery.getDataset("dataset")).isNull();
+    }
+
+    @Test
+    public void shouldInjectFailures() {
+        // Given
+        bigQuery.seed(42).rateLimitErrors(0.2).transientFailures(0.2);
+
+        // When
+        int failures = 0;
+        for (int i = 0; i < 1000; i++) {
+            try {
+                bigQuery.getDataset("dataset");
+            } catch (BigQueryException e) {
+                assertThat(RequestScheduler.isRetryable(e)).isTrue();
+                failures++;
+            }
+        }
+
+        // Then
+        assertThat(failures).isBetween(300, 420);
+        assertThat(bigQuery.getFailureCount()).isEqualTo(failures);
+    }
+
+    @Test
+    public void shouldProvisionThousandsOfTablesThroughFailures() throws IOException {
+        // Given
+        File schemaFolder = createSchemaFolder(2000);
+        File viewFolder = temporaryFolder.newFolder();
+        Files.write(new File(viewFolder, "view_a.sql").toPath(),
+                "SELECT * FROM $datasetName.view_b".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(viewFolder, "view_b.sql").toPath(),
+                "SELECT * FROM $datasetName.table_0".getBytes(StandardCharsets.UTF_8));
+        bigQuery.seed(7).rateLimitErrors(0.05).transientFailures(0.05);
+        BigQueryService service = BigQueryServiceImpl.builder()
+                .bigQuery(bigQuery)
+                .projectId("project")
+                .credentialsFile("")
+                .dataset("dataset")
+                .logger(mock(Log.class))
+                .parallelism(16)
+                .retries(10, 0, 0)
+                .build();
+
+        // When
+        service.createDataset("EU");
+        service.createNativeTables(ImmutableList.of("file:" + schemaFolder.getAbsolutePath()));
+        service.createViews(ImmutableList.of("file:" + viewFolder.getAbsolutePath()));
+        long requests = bigQuery.getRequestCount();
+        service.sync("gs://data.json", "NEWLINE_DELIMITED_JSON",
+                ImmutableList.of("file:" + schemaFolder.getAbsolutePath()), ImmutableList.of(),
+                ImmutableList.of("file:" + viewFolder.getAbsolutePath()), true);
+
+        // Then
+        assertThat(bigQuery.getTableNames("dataset")).hasSize(2002);
+        assertThat(bigQuery.getFailureCount()).isGreaterThan(0);
+        assertThat(bigQuery.getRequestCount("update table")).isZero();
+
+        // When
+        service.deleteTables();
+
+        // Then
+        assertThat(bigQuery.getTableNames("dataset")).isEmpty();
+        assertThat(requests).isGreaterThan(2003);
+    }
+
+    private static TableInfo table(String name) {
+        return TableInfo.of(TableId.of("dataset", name),
+                StandardTableDefinition.of(Schema.of(Field.of("id", LegacySQLTypeName.STRING))));
+    }
+
+    private static void assertError(Runnable request, int code, String reason) {
+        try {
+            request.run();
+            fail("Expected BigQueryException");
+        } catch (BigQueryException e) {
+            assertThat(e.getCode()).isEqualTo(code);
+            assertThat(e.getReason()).isEqualTo(reason);
+        }
+    }
+
+    private File createSchemaFolder(int tableCount) throws IOException {
+        String schema = IOUtils.toString(getClass().getResourceAsStream("/dir/test_table_1.json"), StandardCharsets.UTF_8);
+        File folder = temporaryFolder.newFolder();
+        for (int i = 0; i < tableCount; i++) {
+            Files.write(new File(folder, "table_" + i + ".json").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        }
+        return folder;
+    }
+}
@@ -16,15 +16,18 @@
 
 package io.allune.bigquery.maven.service;
 
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.google.api.services.bigquery.model.TableFieldSchema;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.util.List;
 
 import static io.allune.bigquery.maven.service.ObjectMappers.mapper;
-import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class ObjectMappersTest {
 
@@ -65,6 +68,9 @@ public class ObjectMappersTest {
             "  }\n" +
             "]";
 
+    private static final CollectionType FIELD_LIST_TYPE =
+            mapper().getTypeFactory().constructCollectionType(List.class, TableFieldSchema.class);
+
     @Test
     public void shouldDeserialiseNestedTableFieldSchema() throws IOException {
 
@@ -78,4 +84,62 @@ public class ObjectMappersTest {
         expectedTableFieldSchema.setMode("NULLABLE");
         assertThat(fieldSchemas).contains(expectedTableFieldSchema);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldDeserialiseOptionalAttributes() throws IOException {
+        String json = "[{\"name\": \"email\", \"type\": \"STRING\", \"description\": \"Contact address\"," +
+                " \"policyTags\": {\"names\": [\"projects/p/locations/eu/taxonomies/1/policyTags/2\"]}}]";
+
+        List<TableFieldSchema> fieldSchemas = mapper().readValue(json, FIELD_LIST_TYPE);
+
+        TableFieldSchema field = fieldSchemas.get(0);
+        assertThat(field.getDescription()).isEqualTo("Contact address");
+        assertThat(field.getMode()).isNull();
+        assertThat(field.get("policyTags")).isEqualTo(
+                ImmutableMap.of("names", ImmutableList.of("projects/p/locations/eu/taxonomies/1/policyTags/2")));
+    }
+
+    @Test
+    public void shouldDeserialiseDeeplyNestedTableFieldSchema() throws IOException {
+        int depth = 12;
+        StringBuilder json = new StringBuilder();
+        for (int level = 0; level < depth; level++) {
+            json.append("[{\"name\": \"leaf_").append(level).append("\", \"type\": \"STRING\"},")
+                    .append(" {\"name\": \"level_").append(level).append("\", \"type\": \"RECORD\", \"fields\": ");
+        }
+        json.append("[{\"name\": \"leaf\", \"type\": \"INTEGER\", \"mode\": \"REQUIRED\"}]");
+        for (int level = 0; level < depth; level++) {
+            json.append("}]");
+        }
+
+        List<TableFieldSchema> fieldSchemas = mapper().readValue(json.toString(), FIELD_LIST_TYPE);
+
+        TableFieldSchema field = fieldSchemas.get(1);
+        for (int level = 1; level < depth; level++) {
+            assertThat(field.getFields()).hasSize(2);
+            field = field.getFields().get(1);
+            assertThat(field.getName()).isEqualTo("level_" + level);
+        }
+        assertThat(field.getFields()).containsExactly(
+                new TableFieldSchema().setName("leaf").setType("INTEGER").setMode("REQUIRED"));
+    }
+
+    @Test
+    public void shouldDeserialiseWideTableFieldSchema() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 8000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\": \"field_").append(i).append("\", \"type\": \"FLOAT\"}");
+        }
+        json.append("]");
+
+        List<TableFieldSchema> fieldSchemas = mapper().readValue(json.toString(), FIELD_LIST_TYPE);
+
+        assertThat(fieldSchemas).hasSize(8000);
+        assertThat(fieldSchemas.get(7999).getName()).isEqualTo("field_7999");
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void shouldRejectFieldWithoutType() throws IOException {
+        mapper().readValue("[{\"name\": \"id\"}]", FIELD_LIST_TYPE);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.cloud.bigquery.ExternalTableDefinition;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FormatOptions;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TimePartitioning;
+import com.google.common.collect.ImmutableMap;
+import io.allune.bigquery.maven.ConfigurationException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.Assert.fail;
+
+public class ProvisioningPlanTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadBackEveryDefinitionWritten() throws IOException {
+        // Given
+        Schema schema = Schema.of(
+                Field.newBuilder("id", LegacySQLTypeName.STRING).setMode(Field.Mode.REQUIRED)
+                        .setDescription("The id").build(),
+                Field.of("day", LegacySQLTypeName.DATE),
+                Field.newBuilder("tags", LegacySQLTypeName.RECORD, Field.of("key", LegacySQLTypeName.STRING))
+                        .setMode(Field.Mode.REPEATED).build());
+        TableDefinition partitioned = StandardTableDefinition.newBuilder()
+                .setSchema(schema)
+                .setTimePartitioning(TimePartitioning.newBuilder(TimePartitioning.Type.DAY).setField("day")
+                        .setExpirationMs(86400000L).build())
+                .build();
+        TableDefinition external = ExternalTableDefinition.of("gs://bucket/*.csv", schema, FormatOptions.csv());
+        ViewTemplate view = ViewTemplate.compile("view", "SELECT '$$1', $env FROM ${projectId}.$datasetName.t",
+                ImmutableMap.of("env", "prod"));
+        File planFile = new File(temporaryFolder.getRoot(), "bigquery/plan.json");
+
+        // When
+        new ProvisioningPlan(ImmutableMap.of("partitioned", partitioned), ImmutableMap.of("external", external),
+                ImmutableMap.of("view", view)).writeTo(planFile, "1.0");
+        ProvisioningPlan plan = ProvisioningPlan.readFrom(planFile, "1.0");
+
+        // Then
+        assertThat(plan.getNativeTables()).containsExactly(entry("partitioned", partitioned));
+        assertThat(plan.getExternalTables()).containsExactly(entry("external", external));
+        assertThat(plan.getViewTemplates().get("view").render("project", "dataset"))
+                .isEqualTo("SELECT '$1', prod FROM project.dataset.t");
+    }
+
+    @Test
+    public void shouldRejectPlanWrittenByAnotherVersion() throws IOException {
+        // Given
+        File planFile = temporaryFolder.newFile("plan.json");
+        new ProvisioningPlan(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap())
+                .writeTo(planFile, "1.0");
+
+        try {
+            // When
+            ProvisioningPlan.readFrom(planFile, "1.1");
+            fail("ConfigurationException expected");
+        } catch (ConfigurationException e) {
+            // Then
+            assertThat(e).hasMessage("Plan " + planFile + " was written by version 1.0 of the plugin, not 1.1, "
+                    + "plan it again");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.BigQueryException;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class RequestSchedulerTest {
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    @Test
+    public void shouldPaceRequestsAtConfiguredRate() {
+        // Given
+        RequestScheduler scheduler = new RequestScheduler(10, 5, 0, 0, 0, ticker);
+
+        // When
+        for (int i = 0; i < 25; i++) {
+            scheduler.call("create table", () -> null);
+        }
+
+        // Then the burst goes through at once and the other 20 requests at 10 per second
+        assertThat(ticker.nanos).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+        assertThat(scheduler.getThrottledMillis()).isEqualTo(2000);
+    }
+
+    @Test
+    public void shouldRetryRateLimitedRequestsWithBackoff() {
+        // Given
+        RequestScheduler scheduler = new RequestScheduler(0, 1, 5, 1000, 4000, ticker);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = scheduler.call("create table", () -> {
+            if (attempts.incrementAndGet() < 4) {
+                throw new BigQueryException(403, "Exceeded rate limits",
+                        new BigQueryError("rateLimitExceeded", null, "Exceeded rate limits"));
+            }
+            return "created";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("created");
+        assertThat(scheduler.getRetries()).isEqualTo(3);
+        // 1 s, 2 s and 4 s backoffs, each with up to half of it taken off by jitter
+        assertThat(scheduler.getBackoffMillis()).isBetween(3500L, 7000L);
+    }
+
+    @Test
+    public void shouldNotRetryClientErrors() {
+        // Given
+        RequestScheduler scheduler = new RequestScheduler(0, 1, 5, 1000, 4000, ticker);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        try {
+            scheduler.call("create table", () -> {
+                attempts.incrementAndGet();
+                throw new BigQueryException(409, "Already Exists");
+            });
+            fail("Expected BigQueryException");
+        } catch (BigQueryException e) {
+            // Then
+            assertThat(attempts.get()).isEqualTo(1);
+            assertThat(scheduler.getBackoffMillis()).isZero();
+        }
+    }
+
+    @Test
+    public void shouldTakeConflictOnRetriedCreateForSuccess() {
+        // Given
+        RequestScheduler scheduler = new RequestScheduler(0, 1, 5, 10, 10, ticker);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        Object result = scheduler.create("create table", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new BigQueryException(503, "Service Unavailable");
+            }
+            throw new BigQueryException(409, "Already Exists");
+        });
+
+        // Then
+        assertThat(result).isNull();
+        assertThat(attempts.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotRetryPermanentServerErrors() {
+        // Given
+        RequestScheduler scheduler = new RequestScheduler(0, 1, 5, 10, 10, ticker);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        try {
+            scheduler.call("create table", () -> {
+                attempts.incrementAndGet();
+                throw new BigQueryException(501, "Not Implemented");
+            });
+            fail("Expected BigQueryException");
+        } catch (BigQueryException e) {
+            // Then
+            assertThat(attempts.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxRetries() {
+        // Given
+        RequestScheduler scheduler = new RequestScheduler(0, 1, 2, 10, 10, ticker);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        try {
+            scheduler.call("create table", () -> {
+                attempts.incrementAndGet();
+                throw new BigQueryException(503, "Service Unavailable");
+            });
+            fail("Expected BigQueryException");
+        } catch (BigQueryException e) {
+            // Then
+            assertThat(e.getCode()).isEqualTo(503);
+            assertThat(attempts.get()).isEqualTo(3);
+        }
+    }
+
+    private static final class FakeTicker implements RequestScheduler.Ticker {
+        private long nanos;
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public void sleep(long nanos) {
+            this.nanos += nanos;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import io.allune.bigquery.maven.ProvisioningException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Fail.fail;
+
+public class RequestWindowTest {
+
+    @Test
+    public void shouldNeverHaveMoreRequestsInFlightThanTheWindow() {
+        // Given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        // When
+        int count;
+        try (RequestWindow window = new RequestWindow("create tables", Executors.newCachedThreadPool(), 3)) {
+            for (int i = 0; i < 50; i++) {
+                int item = i;
+                futures.add(window.submit("table_" + i, () -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    sleep(2);
+                    inFlight.decrementAndGet();
+                    return item;
+                }));
+            }
+            count = window.await();
+        }
+
+        // Then
+        assertThat(count).isEqualTo(50);
+        assertThat(maxInFlight.get()).isBetween(2, 3);
+        assertThat(futures).allMatch(future -> future.isDone() && !future.isCompletedExceptionally());
+        assertThat(futures.get(49).join()).isEqualTo(49);
+    }
+
+    @Test
+    public void shouldReportTheFirstFailureAndAggregateTheOthers() {
+        // Given
+        try (RequestWindow window = new RequestWindow("delete tables", Executors.newSingleThreadExecutor(), 2)) {
+            CompletableFuture<Object> failed = window.submit("a", () -> {
+                throw new IllegalStateException("a failed");
+            });
+            window.submit("b", () -> null);
+            window.submit("c", () -> {
+                throw new IllegalStateException("c failed");
+            });
+
+            // When
+            try {
+                window.await();
+                fail("Expected ProvisioningException");
+            } catch (ProvisioningException e) {
+
+                // Then
+                assertThat(e).hasMessage("Failed to delete tables: 2 of 3 failed (a, c)");
+                assertThat(e.getCause()).hasMessage("a failed");
+                assertThat(e.getSuppressed()).hasSize(1);
+                assertThat(e.getSuppressed()[0]).hasMessage("c failed");
+                assertThat(failed).isCompletedExceptionally();
+            }
+        }
+    }
+
+    @Test
+    public void shouldRunOnVirtualThreadsOnlyWhenSupported() {
+        // Given
+        ParallelExecutor executor = new ParallelExecutor(4, true);
+        List<Boolean> daemons = new ArrayList<>();
+
+        // When
+        try (RequestWindow window = executor.openWindow("create tables")) {
+            window.submit("table", () -> daemons.add(Thread.currentThread().isDaemon()));
+            window.await();
+        }
+
+        // Then
+        assertThat(executor.isVirtualThreads()).isEqualTo(ParallelExecutor.supportsVirtualThreads());
+        assertThat(new ParallelExecutor(4).isVirtualThreads()).isFalse();
+        assertThat(daemons).containsExactly(true);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ResourceIndex resourceIndex;
+
+    @Before
+    public void setUp() {
+        resourceIndex = new ResourceIndex(getClass().getClassLoader());
+    }
+
+    @Test
+    public void shouldScanFileSystemDirectoriesRecursively() throws IOException {
+        // Given
+        File root = temporaryFolder.newFolder("schemas");
+        newFile(root, "b.json");
+        newFile(root, "nested/a.json");
+        newFile(root, "nested/deeper/c.sql");
+
+        // When
+        List<Resource> resources = resourceIndex.resources(Collections.singletonList("file:" + root));
+
+        // Then
+        assertThat(filenames(resources)).containsExactly("b.json", "a.json", "c.sql");
+    }
+
+    @Test
+    public void shouldMatchAntPatterns() throws IOException {
+        // Given
+        File root = temporaryFolder.newFolder("schemas");
+        newFile(root, "b.json");
+        newFile(root, "nested/a.json");
+        newFile(root, "nested/deeper/c.sql");
+
+        // When
+        List<Resource> resources = resourceIndex.resources(Collections.singletonList("file:" + root + "/**/*.json"));
+
+        // Then
+        assertThat(filenames(resources)).containsExactly("b.json", "a.json");
+    }
+
+    @Test
+    public void shouldResolveClassPathLocations() {
+        assertThat(filenames(resourceIndex.resources(Collections.singletonList("classpath:/dir"))))
+                .containsExactly("test_table_1.json");
+        assertThat(filenames(resourceIndex.resources(Collections.singletonList("classpath:dir/*.json"))))
+                .containsExactly("test_table_1.json");
+        assertThat(filenames(resourceIndex.resources(Collections.singletonList("dir/test_table_1.json"))))
+                .containsExactly("test_table_1.json");
+    }
+
+    @Test
+    public void shouldScanEachLocationOnce() throws IOException {
+        // Given
+        File root = temporaryFolder.newFolder("schemas");
+        newFile(root, "a.json");
+        resourceIndex.resources(Collections.singletonList("file:" + root));
+        newFile(root, "b.json");
+
+        // When
+        List<Resource> resources = resourceIndex.resources(Collections.singletonList("file:" + root));
+
+        // Then
+        assertThat(filenames(resources)).containsExactly("a.json");
+    }
+
+    private static void newFile(File root, String path) throws IOException {
+        File file = new File(root, path);
+        assertThat(file.getParentFile().mkdirs() || file.getParentFile().isDirectory()).isTrue();
+        assertThat(file.createNewFile()).isTrue();
+    }
+
+    private static List<String> filenames(List<Resource> resources) {
+        return resources.stream().map(Resource::getFilename).collect(toList());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchemaEvolutionTest {
+
+    @Test
+    public void shouldApplyAdditiveChangesAfterTheExistingFields() {
+        // Given
+        Schema local = Schema.of(
+                Field.of("name", LegacySQLTypeName.STRING),
+                Field.newBuilder("id", LegacySQLTypeName.valueOf("INT64")).setDescription("The id").build(),
+                Field.of("record", LegacySQLTypeName.RECORD,
+                        Field.of("added", LegacySQLTypeName.STRING), Field.of("at", LegacySQLTypeName.TIMESTAMP)),
+                Field.newBuilder("tags", LegacySQLTypeName.STRING).setMode(Field.Mode.REPEATED).build());
+        Schema remote = Schema.of(
+                Field.newBuilder("id", LegacySQLTypeName.INTEGER).setMode(Field.Mode.REQUIRED).build(),
+                Field.of("record", LegacySQLTypeName.RECORD, Field.of("at", LegacySQLTypeName.TIMESTAMP)),
+                Field.of("name", LegacySQLTypeName.STRING));
+
+        // When
+        SchemaEvolution evolution = SchemaEvolution.of(local, remote);
+
+        // Then
+        assertThat(evolution.isCompatible()).isTrue();
+        assertThat(evolution.getChanges()).containsExactly("id relaxed to NULLABLE", "id described",
+                "record.added added", "tags added");
+        assertThat(evolution.getSchema().getFields()).extracting(Field::getName)
+                .containsExactly("id", "record", "name", "tags");
+        assertThat(evolution.getSchema().getFields().get("id").getMode()).isEqualTo(Field.Mode.NULLABLE);
+        assertThat(evolution.getSchema().getFields().get("id").getDescription()).isEqualTo("The id");
+        assertThat(evolution.getSchema().getFields().get("record").getSubFields()).extracting(Field::getName)
+                .containsExactly("at", "added");
+    }
+
+    @Test
+    public void shouldReportIncompatibleChanges() {
+        // Given
+        Schema local = Schema.of(
+                Field.of("id", LegacySQLTypeName.INTEGER),
+                Field.newBuilder("name", LegacySQLTypeName.STRING).setMode(Field.Mode.REQUIRED).build(),
+                Field.of("record", LegacySQLTypeName.RECORD, Field.of("at", LegacySQLTypeName.DATE)),
+                Field.newBuilder("created", LegacySQLTypeName.DATE).setMode(Field.Mode.REQUIRED).build());
+        Schema remote = Schema.of(
+                Field.of("id", LegacySQLTypeName.STRING),
+                Field.of("name", LegacySQLTypeName.STRING),
+                Field.of("record", LegacySQLTypeName.RECORD,
+                        Field.of("at", LegacySQLTypeName.TIMESTAMP), Field.of("by", LegacySQLTypeName.STRING)),
+                Field.of("removed", LegacySQLTypeName.STRING));
+
+        // When
+        SchemaEvolution evolution = SchemaEvolution.of(local, remote);
+
+        // Then
+        assertThat(evolution.isCompatible()).isFalse();
+        assertThat(evolution.getIncompatibleChanges()).containsExactly(
+                "id changed from STRING to INTEGER",
+                "name changed from NULLABLE to REQUIRED",
+                "record.at changed from TIMESTAMP to DATE",
+                "record.by removed",
+                "removed removed",
+                "created added as REQUIRED");
+    }
+
+    @Test
+    public void shouldFindNoChangeInEquivalentSchemas() {
+        // Given
+        Schema schema = Schema.of(Field.of("id", LegacySQLTypeName.STRING),
+                Field.of("record", LegacySQLTypeName.RECORD, Field.of("at", LegacySQLTypeName.TIMESTAMP)));
+
+        // When
+        SchemaEvolution evolution = SchemaEvolution.of(schema, schema);
+
+        // Then
+        assertThat(evolution.isCompatible()).isTrue();
+        assertThat(evolution.getChanges()).isEmpty();
+        assertThat(evolution.getSchema()).isEqualTo(Schema.of(
+                Field.newBuilder("id", LegacySQLTypeName.STRING).setMode(Field.Mode.NULLABLE).build(),
+                Field.newBuilder("record", LegacySQLTypeName.RECORD,
+                        Field.newBuilder("at", LegacySQLTypeName.TIMESTAMP).setMode(Field.Mode.NULLABLE).build())
+                        .setMode(Field.Mode.NULLABLE).build()));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.api.services.bigquery.model.TableFieldSchema;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchemaValidatorTest {
+
+    @Test
+    public void shouldAcceptValidSchema() {
+        // Given
+        List<TableFieldSchema> fields = asList(
+                field("id", "INT64", "REQUIRED"),
+                field("_name", "string", null),
+                field("address", "STRUCT", "REPEATED").setFields(asList(
+                        field("street", "STRING", null), field("location", "GEOGRAPHY", "NULLABLE"))));
+
+        // When
+        List<String> problems = SchemaValidator.validate(fields);
+
+        // Then
+        assertThat(problems).isEmpty();
+    }
+
+    @Test
+    public void shouldReportEveryProblemAtOnce() {
+        // Given
+        List<TableFieldSchema> fields = asList(
+                field("1st", "STRING", null),
+                field("name", "STRIGN", null),
+                field("Name", "STRING", "OPTIONAL"),
+                field("_PARTITIONTIME", "TIMESTAMP", null),
+                field("address", "RECORD", null),
+                field("city", "STRING", null).setFields(Collections.singletonList(field("zip", "STRING", null))),
+                field("tags", "RECORD", "REPEATED").setFields(asList(
+                        field("key", "STRING", null), field("with-dash", "STRING", null))));
+
+        // When
+        List<String> problems = SchemaValidator.validate(fields);
+
+        // Then
+        assertThat(problems).containsExactly(
+                "1st: invalid name, it must start with a letter or an underscore and contain only letters, "
+                        + "digits and underscores",
+                "name: unknown type STRIGN",
+                "Name: duplicate field",
+                "Name: unknown mode OPTIONAL",
+                "_PARTITIONTIME: names starting with _PARTITION are reserved",
+                "address: RECORD has no fields",
+                "city: STRING cannot have fields",
+                "tags.with-dash: invalid name, it must start with a letter or an underscore and contain only "
+                        + "letters, digits and underscores");
+    }
+
+    @Test
+    public void shouldEnforceDepthAndColumnLimits() {
+        // Given
+        TableFieldSchema record = field("leaf", "STRING", null);
+        for (int level = SchemaValidator.MAX_NESTING_DEPTH + 1; level > 0; level--) {
+            record = field("level_" + level, "RECORD", null).setFields(Collections.singletonList(record));
+        }
+        List<TableFieldSchema> fields = new ArrayList<>();
+        fields.add(record);
+        for (int i = 0; i < SchemaValidator.MAX_COLUMNS; i++) {
+            fields.add(field("column_" + i, "STRING", null));
+        }
+
+        // When
+        List<String> problems = SchemaValidator.validate(fields);
+
+        // Then
+        assertThat(problems).containsExactly(
+                "level_1.level_2.level_3.level_4.level_5.level_6.level_7.level_8.level_9.level_10.level_11"
+                        + ".level_12.level_13.level_14.level_15: nested more than 15 levels deep",
+                "10015 columns, more than the 10000 allowed");
+    }
+
+    private static TableFieldSchema field(String name, String type, String mode) {
+        return new TableFieldSchema().setName(name).setType(type).setMode(mode);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.api.services.bigquery.model.TableFieldSchema;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TimePartitioning;
+import io.allune.bigquery.maven.ConfigurationException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class TableDefinitionLoaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldKeepFieldOrder() {
+        // Given
+        TableFieldSchema record = field("address", "RECORD", "REPEATED")
+                .setFields(asList(field("street", "STRING", "REQUIRED"), field("number", "INTEGER", null)));
+
+        // When
+        Schema schema = TableDefinitionLoader.toSchema(asList(
+                field("id", "STRING", "REQUIRED"), record, field("name", "STRING", null).setDescription("Full name")));
+
+        // Then
+        assertThat(schema).isEqualTo(Schema.of(
+                Field.newBuilder("id", LegacySQLTypeName.STRING).setMode(Field.Mode.REQUIRED).build(),
+                Field.newBuilder("address", LegacySQLTypeName.RECORD,
+                        Field.newBuilder("street", LegacySQLTypeName.STRING).setMode(Field.Mode.REQUIRED).build(),
+                        Field.of("number", LegacySQLTypeName.INTEGER))
+                        .setMode(Field.Mode.REPEATED).build(),
+                Field.newBuilder("name", LegacySQLTypeName.STRING).setDescription("Full name").build()));
+    }
+
+    @Test
+    public void shouldConvertDeeplyNestedRecords() {
+        // Given
+        int depth = 5000;
+        TableFieldSchema leaf = field("leaf", "STRING", null);
+        TableFieldSchema record = leaf;
+        for (int level = depth; level > 0; level--) {
+            record = field("level_" + level, "RECORD", null).setFields(Collections.singletonList(record));
+        }
+
+        // When
+        Schema schema = TableDefinitionLoader.toSchema(Collections.singletonList(record));
+
+        // Then
+        FieldList fields = schema.getFields();
+        for (int level = 1; level <= depth; level++) {
+            assertThat(fields.get(0).getName()).isEqualTo("level_" + level);
+            fields = fields.get(0).getSubFields();
+        }
+        assertThat(fields).containsExactly(Field.of("leaf", LegacySQLTypeName.STRING));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void shouldRejectRecordWithoutFields() {
+        TableDefinitionLoader.toSchema(Collections.singletonList(field("address", "RECORD", null)));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void shouldRejectUnknownMode() {
+        TableDefinitionLoader.toSchema(Collections.singletonList(field("id", "STRING", "OPTIONAL")));
+    }
+
+    @Test
+    public void shouldConvertEveryTypeTheValidationAccepts() throws IOException {
+        // Given
+        File file = temporaryFolder.newFile("aliases.json");
+        write(file, "[{\"name\": \"id\", \"type\": \"int64\"}, {\"name\": \"flag\", \"type\": \"BOOL\"}, "
+                + "{\"name\": \"address\", \"type\": \"STRUCT\", \"fields\": ["
+                + "{\"name\": \"geo\", \"type\": \"record\", \"fields\": [{\"name\": \"lat\", "
+                + "\"type\": \"float64\"}]}]}]");
+
+        // When
+        TableDefinition definition = TableDefinitionLoader.loadStandardTableDefinition(new FileSystemResource(file));
+
+        // Then
+        assertThat(definition.getSchema()).isEqualTo(Schema.of(
+                Field.of("id", LegacySQLTypeName.INTEGER),
+                Field.of("flag", LegacySQLTypeName.BOOLEAN),
+                Field.of("address", LegacySQLTypeName.RECORD,
+                        Field.of("geo", LegacySQLTypeName.RECORD, Field.of("lat", LegacySQLTypeName.FLOAT)))));
+    }
+
+    @Test
+    public void shouldLoadTimePartitioningAlongWithTheFields() throws IOException {
+        // Given
+        File file = temporaryFolder.newFile("events.json");
+        write(file, "{\"fields\": [{\"name\": \"id\", \"type\": \"STRING\"}, "
+                + "{\"name\": \"created_at\", \"type\": \"TIMESTAMP\"}], "
+                + "\"timePartitioning\": {\"type\": \"DAY\", \"field\": \"created_at\", "
+                + "\"expirationMs\": 7776000000, \"requirePartitionFilter\": true}}");
+
+        // When
+        StandardTableDefinition definition = (StandardTableDefinition)
+                TableDefinitionLoader.loadStandardTableDefinition(new FileSystemResource(file));
+
+        // Then
+        assertThat(definition.getSchema().getFields()).extracting(Field::getName).containsExactly("id", "created_at");
+        assertThat(definition.getTimePartitioning()).isEqualTo(TimePartitioning.newBuilder(TimePartitioning.Type.DAY)
+                .setField("created_at")
+                .setExpirationMs(7776000000L)
+                .setRequirePartitionFilter(true)
+                .build());
+    }
+
+    @Test
+    public void shouldReportInvalidPartitioning() throws IOException {
+        // Given
+        File file = temporaryFolder.newFile("events.json");
+        write(file, "{\"fields\": [{\"name\": \"id\", \"type\": \"STRING\"}], "
+                + "\"timePartitioning\": {\"type\": \"HOUR\", \"field\": \"id\", \"expirationMs\": 0}, "
+                + "\"clustering\": {\"fields\": [\"id\"]}}");
+
+        try {
+            // When
+            TableDefinitionLoader.loadStandardTableDefinition(new FileSystemResource(file));
+            fail("ConfigurationException expected");
+        } catch (ConfigurationException e) {
+            // Then
+            assertThat(e).hasMessage("Invalid schema events.json: "
+                    + "timePartitioning: unsupported type HOUR, only DAY is; "
+                    + "timePartitioning: id is a STRING, only DATE, TIMESTAMP and DATETIME fields can partition a "
+                    + "table; timePartitioning: expirationMs must be positive; clustering is not supported");
+        }
+    }
+
+    @Test
+    public void shouldRejectPartitionedExternalTable() throws IOException {
+        // Given
+        File file = temporaryFolder.newFile("events.json");
+        write(file, "{\"fields\": [{\"name\": \"day\", \"type\": \"DATE\"}], "
+                + "\"timePartitioning\": {\"field\": \"day\"}}");
+
+        try {
+            // When
+            TableDefinitionLoader.loadExternalTableDefinition("gs://bucket/*", "CSV", new FileSystemResource(file));
+            fail("ConfigurationException expected");
+        } catch (ConfigurationException e) {
+            // Then
+            assertThat(e).hasMessage("Invalid schema events.json: external tables cannot be partitioned or clustered");
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TableFieldSchema field(String name, String type, String mode) {
+        return new TableFieldSchema().setName(name).setType(type).setMode(mode);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.cloud.bigquery.ExternalTableDefinition;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FormatOptions;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.ViewDefinition;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TableDefinitionsTest {
+
+    @Test
+    public void shouldMatchEquivalentSchemas() {
+        Schema local = Schema.of(
+                Field.of("id", LegacySQLTypeName.valueOf("INT64")),
+                Field.of("record", LegacySQLTypeName.RECORD, Field.of("name", LegacySQLTypeName.STRING)));
+        Schema remote = Schema.of(
+                Field.newBuilder("id", LegacySQLTypeName.INTEGER).setMode(Field.Mode.NULLABLE).setDescription("id").build(),
+                Field.of("record", LegacySQLTypeName.RECORD, Field.of("name", LegacySQLTypeName.STRING)));
+
+        assertThat(TableDefinitions.isEquivalent(StandardTableDefinition.of(local), StandardTableDefinition.of(remote))).isTrue();
+    }
+
+    @Test
+    public void shouldDetectSchemaChanges() {
+        Schema local = Schema.of(Field.of("id", LegacySQLTypeName.STRING), Field.of("name", LegacySQLTypeName.STRING));
+        Schema remote = Schema.of(Field.of("id", LegacySQLTypeName.STRING));
+        Schema relaxed = Schema.of(
+                Field.newBuilder("id", LegacySQLTypeName.STRING).setMode(Field.Mode.REQUIRED).build(),
+                Field.of("name", LegacySQLTypeName.STRING));
+
+        assertThat(TableDefinitions.isEquivalent(StandardTableDefinition.of(local), StandardTableDefinition.of(remote))).isFalse();
+        assertThat(TableDefinitions.isEquivalent(StandardTableDefinition.of(local), StandardTableDefinition.of(relaxed))).isFalse();
+    }
+
+    @Test
+    public void shouldIgnoreFieldOrder() {
+        Schema local = Schema.of(
+                Field.of("record", LegacySQLTypeName.RECORD, Field.of("name", LegacySQLTypeName.STRING)),
+                Field.of("id", LegacySQLTypeName.STRING));
+        Schema remote = Schema.of(
+                Field.of("id", LegacySQLTypeName.STRING),
+                Field.of("record", LegacySQLTypeName.RECORD, Field.of("name", LegacySQLTypeName.STRING)));
+
+        assertThat(TableDefinitions.isEquivalent(local, remote)).isTrue();
+    }
+
+    @Test
+    public void shouldCompareViewQueries() {
+        assertThat(TableDefinitions.isEquivalent(ViewDefinition.of("SELECT 1\n"), ViewDefinition.of("SELECT 1"))).isTrue();
+        assertThat(TableDefinitions.isEquivalent(ViewDefinition.of("SELECT 1"), ViewDefinition.of("SELECT 2"))).isFalse();
+    }
+
+    @Test
+    public void shouldCompareDefinitionTypes() {
+        Schema schema = Schema.of(Field.of("id", LegacySQLTypeName.STRING));
+
+        assertThat(TableDefinitions.isEquivalent(StandardTableDefinition.of(schema), ViewDefinition.of("SELECT 1"))).isFalse();
+        assertThat(TableDefinitions.isEquivalent(
+                ExternalTableDefinition.of("gs://a", schema, FormatOptions.csv()),
+                ExternalTableDefinition.of("gs://b", schema, FormatOptions.csv()))).isFalse();
+    }
+}
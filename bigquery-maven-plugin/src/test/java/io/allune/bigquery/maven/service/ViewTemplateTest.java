@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.allune.bigquery.maven.service;
+
+import com.google.common.collect.ImmutableMap;
+import io.allune.bigquery.maven.ConfigurationException;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Fail.fail;
+
+public class ViewTemplateTest {
+
+    @Test
+    public void shouldRenderProjectAndDatasetForEachDataset() {
+        // Given
+        ViewTemplate template = ViewTemplate.compile("view",
+                "SELECT * FROM `$projectId.$datasetName.table` JOIN ${datasetName}.other USING (id)",
+                Collections.emptyMap());
+
+        // When
+        String first = template.render("project", "first");
+        String second = template.render("project", "second");
+
+        // Then
+        assertThat(first).isEqualTo("SELECT * FROM `project.first.table` JOIN first.other USING (id)");
+        assertThat(second).isEqualTo("SELECT * FROM `project.second.table` JOIN second.other USING (id)");
+    }
+
+    @Test
+    public void shouldSubstituteVariablesWhenCompiling() {
+        // Given
+        ImmutableMap<String, String> variables = ImmutableMap.of("rawDataset", "raw_prod", "env.name", "prod");
+
+        // When
+        ViewTemplate template = ViewTemplate.compile("view",
+                "SELECT '${env.name}' AS env, '$$1', r'\\d+$' FROM $rawDataset.events WHERE price > $2 -- $ sign",
+                variables);
+
+        // Then
+        assertThat(template.render("project", "dataset"))
+                .isEqualTo("SELECT 'prod' AS env, '$1', r'\\d+$' FROM raw_prod.events WHERE price > $2 -- $ sign");
+    }
+
+    @Test
+    public void shouldRejectUndefinedVariables() {
+        try {
+            // When
+            ViewTemplate.compile("view", "SELECT *\nFROM $datasetName.events\nWHERE env = '${environment}'",
+                    Collections.emptyMap());
+            fail("Expected ConfigurationException");
+        } catch (ConfigurationException e) {
+            // Then
+            assertThat(e.getMessage()).isEqualTo("Undefined variable environment at line 3 of view view");
+        }
+    }
+}